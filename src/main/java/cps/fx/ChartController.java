@@ -1,5 +1,6 @@
 package cps.fx;
 
+import cps.model.signals.SampleBuffer;
 import cps.model.signals.Signal;
 import javafx.fxml.FXML;
 import javafx.scene.chart.LineChart;
@@ -9,7 +10,6 @@ import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.VBox;
 
 import java.util.List;
-import java.util.Map;
 
 public class ChartController {
     @FXML private ScrollPane chartScrollPane;
@@ -28,8 +28,9 @@ public class ChartController {
 
         for (Signal signal : signals) {
             XYChart.Series<Number, Number> series = new XYChart.Series<>();
-            for (Map.Entry<Double, Double> sample : signal.getTimestampSamples().entrySet()) {
-                series.getData().add(new XYChart.Data<>(sample.getKey(), sample.getValue()));
+            SampleBuffer sampleBuffer = signal.getSampleBuffer();
+            for (int i = 0; i < sampleBuffer.size(); i++) {
+                series.getData().add(new XYChart.Data<>(sampleBuffer.getTimestamp(i), sampleBuffer.getValue(i)));
             }
             series.setName(signal.getName());
             lineChart.getData().add(series);
@@ -44,8 +45,9 @@ public class ChartController {
         for (Signal signal : signals) {
             LineChart<Number, Number> lineChart = new LineChart<>(new NumberAxis(), new NumberAxis());
             XYChart.Series<Number, Number> series = new XYChart.Series<>();
-            for (Map.Entry<Double, Double> sample : signal.getTimestampSamples().entrySet()) {
-                series.getData().add(new XYChart.Data<>(sample.getKey(), sample.getValue()));
+            SampleBuffer sampleBuffer = signal.getSampleBuffer();
+            for (int i = 0; i < sampleBuffer.size(); i++) {
+                series.getData().add(new XYChart.Data<>(sampleBuffer.getTimestamp(i), sampleBuffer.getValue(i)));
             }
             series.setName(signal.getName());
             lineChart.getData().add(series);
@@ -1,6 +1,6 @@
 package cps.fx;
 
-import cps.model.StatisticTool;
+import cps.model.SignalAnalysisCache;
 import cps.model.signals.Signal;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
@@ -21,11 +21,17 @@ public class StatisticsController {
 
     public void calculateStats(List<Signal> signalList) {
         for (Signal signal : signalList) {
-            Map<String, Double> stats = StatisticTool.getStatistics(signal.getTimestampSamples());
+            Map<String, Double> stats = SignalAnalysisCache.getStatistics(signal);
             addGrid(stats);
         }
     }
 
+    public void showQuantiles(List<Signal> signalList) {
+        for (Signal signal : signalList) {
+            addGrid(SignalAnalysisCache.getQuantiles(signal));
+        }
+    }
+
     private void addGrid(Map<String, Double> stats) {
         GridPane grid = new GridPane();
         grid.setHgap(10);
@@ -43,7 +49,7 @@ public class StatisticsController {
 
     public void showHistogram(List<Signal> selectedSignals, int numberOfBins) {
         for (Signal signal : selectedSignals) {
-            Map<String, Integer> histogramData = StatisticTool.createHistogramData(numberOfBins, signal.getSamples());
+            Map<String, Integer> histogramData = SignalAnalysisCache.getHistogramData(signal, numberOfBins);
 
             CategoryAxis xAxis = new CategoryAxis();
             NumberAxis yAxis = new NumberAxis();
@@ -68,10 +74,7 @@ public class StatisticsController {
     }
 
     public void calculateMeasures(List<Signal> selectedSignals) {
-        Map<String, Double> measures = StatisticTool.getMeasures(
-                selectedSignals.getFirst().getTimestampSamples(),
-                selectedSignals.get(1).getTimestampSamples()
-        );
+        Map<String, Double> measures = SignalAnalysisCache.getMeasures(selectedSignals.getFirst(), selectedSignals.get(1));
         addGrid(measures);
     }
 
@@ -7,10 +7,13 @@ import cps.fx.utils.SignalRepository;
 import cps.fx.enums.FiltrationType;
 import cps.fx.enums.OperationType;
 import cps.dto.FiltrationDto;
+import cps.model.SignalAnalysisCache;
 import cps.model.SignalIO;
 import cps.model.SignalFactory;
 import cps.model.SignalOperations;
+import cps.model.filter.IIRDesign.Approximation;
 import cps.model.signals.Complex;
+import cps.model.signals.SampleBuffer;
 import cps.model.signals.Signal;
 import cps.simulator.SondaCore;
 import javafx.collections.FXCollections;
@@ -28,6 +31,10 @@ import java.util.logging.Logger;
 
 public class TopMenuController {
     private static final Logger logger = Logger.getLogger(TopMenuController.class.getName());
+    private static final int WELCH_SEGMENT_SIZE = 256;
+    private static final String ALL_SAMPLES = "all samples";
+    // DFT and DCT are computed directly in O(N^2), on FX thread
+    private static final int MAX_DIRECT_TRANSFORM_SIZE = 1 << 10;
 
     @Setter
     @FXML private SignalListController signalListController;
@@ -59,6 +66,7 @@ public class TopMenuController {
 
     // Statystyki / Histogram
     @FXML private Button calculateStatsButton;
+    @FXML private Button showQuantilesButton;
     @FXML private ComboBox<String> histogramBinsComboBox;
     @FXML private Button showHistogramButton;
     @FXML private Button calculateMeasuresButton;
@@ -71,7 +79,7 @@ public class TopMenuController {
     @FXML private Button startInTimeSondaButton;
 
     @FXML private ComboBox<TransformationType> transformationComboBox;
-    @FXML private ComboBox<Integer> log2NComboBox;
+    @FXML private ComboBox<String> log2NComboBox;
     @FXML private Button transformButton;
 
     @FXML private Button clearStatisticsButton;
@@ -94,6 +102,7 @@ public class TopMenuController {
         readFileButton.setOnAction(e -> readFile());
 
         calculateStatsButton.setOnAction(e -> calculateStats());
+        showQuantilesButton.setOnAction(e -> showQuantiles());
 
         histogramBinsComboBox.setItems(FXCollections.observableArrayList("5", "10", "15", "20"));
         histogramBinsComboBox.getSelectionModel().selectFirst();
@@ -106,7 +115,8 @@ public class TopMenuController {
 
         transformationComboBox.setItems(FXCollections.observableArrayList(TransformationType.values()));
         transformationComboBox.getSelectionModel().selectFirst();
-        log2NComboBox.setItems(FXCollections.observableArrayList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+        log2NComboBox.setItems(FXCollections.observableArrayList(ALL_SAMPLES, "1", "2", "3", "4", "5", "6", "7", "8", "9", "10"));
+        log2NComboBox.getSelectionModel().selectFirst();
         transformButton.setOnAction(e -> transform());
 
         clearStatisticsButton.setOnAction(e -> statisticsController.clear());
@@ -158,9 +168,14 @@ public class TopMenuController {
         int m = Integer.parseInt(mParameterTextField.getText());
         double cutoffFrequency = Double.parseDouble(cutoffFrequencyTextField.getText());
 
+        // for IIR filters M is order of filter
         FiltrationDto filtrationDto = switch (filtrationTypeComboBox.getValue()) {
             case LOW_PASS -> SignalOperations.lowPassFIRFiltration(signal, m, cutoffFrequency);
             case HIGH_PASS -> SignalOperations.highPassFIRFiltration(signal, m, cutoffFrequency);
+            case BUTTERWORTH_LOW_PASS -> SignalOperations.lowPassIIRFiltration(signal, Approximation.BUTTERWORTH, m, cutoffFrequency);
+            case BUTTERWORTH_HIGH_PASS -> SignalOperations.highPassIIRFiltration(signal, Approximation.BUTTERWORTH, m, cutoffFrequency);
+            case CHEBYSHEV_LOW_PASS -> SignalOperations.lowPassIIRFiltration(signal, Approximation.CHEBYSHEV, m, cutoffFrequency);
+            case CHEBYSHEV_HIGH_PASS -> SignalOperations.highPassIIRFiltration(signal, Approximation.CHEBYSHEV, m, cutoffFrequency);
         };
 
         SignalRepository.getInstance().addSignal(filtrationDto.filteredSignal());
@@ -199,6 +214,16 @@ public class TopMenuController {
         statisticsController.calculateStats(selectedSignals);
     }
 
+    private void showQuantiles() {
+        List<Signal> selectedSignals = signalListController.getSelectedSignals();
+        if (selectedSignals.isEmpty()) {
+            logger.warning("Choose at least one signal.");
+            return;
+        }
+
+        statisticsController.showQuantiles(selectedSignals);
+    }
+
     private void showHistogram() {
         int bins = Integer.parseInt(histogramBinsComboBox.getValue());
         List<Signal> selectedSignals = signalListController.getSelectedSignals();
@@ -286,56 +311,70 @@ public class TopMenuController {
         double fs = 1 / selectedSignals.getFirst().getTimeStep();
         logger.info("fs: %s".formatted(fs));
 
-        int log2N = log2NComboBox.getValue();
-        int size = 1 << log2N;
-        List<Double> samplesList = selectedSignals.getFirst().getSamples().subList(0, size);
-        double[] samples = samplesList.stream().mapToDouble(Double::doubleValue).toArray();
+        String log2NChoice = log2NComboBox.getValue();
+        Integer log2N = log2NChoice == null || log2NChoice.equals(ALL_SAMPLES) ? null : Integer.parseInt(log2NChoice);
+        if (transformationComboBox.getValue() == TransformationType.WELCH) {
+            // signal is averaged in full segments of chosen size
+            int segmentSize = log2N == null ? WELCH_SEGMENT_SIZE : 1 << log2N;
+            if (selectedSignals.getFirst().size() < segmentSize) {
+                logger.warning("Signal shorter than Welch segment of %s samples.".formatted(segmentSize));
+                return;
+            }
+            SignalRepository.getInstance().addSignal(SignalAnalysisCache.getPowerSpectralDensity(selectedSignals.getFirst(), segmentSize));
+            return;
+        }
+
+        // without chosen log2N whole signal is transformed
+        double[] signalSamples = selectedSignals.getFirst().getSampleBuffer().values();
+        int size = log2N == null ? signalSamples.length : 1 << log2N;
+        TransformationType transformationType = transformationComboBox.getValue();
+        if ((transformationType == TransformationType.DFT || transformationType == TransformationType.DCT)
+                && size > MAX_DIRECT_TRANSFORM_SIZE) {
+            logger.warning("%s limited to %s samples, choose log2N or fast transform.".formatted(transformationType, MAX_DIRECT_TRANSFORM_SIZE));
+            return;
+        }
+        double[] samples = Arrays.copyOf(signalSamples, size);
 
-        switch (transformationComboBox.getValue()) {
-            case DFT -> runFourier(SignalOperations.dft(samples, log2N), fs, "dft");
-            case FFT -> runFourier(SignalOperations.fftDIF(samples, log2N), fs, "fft");
+        switch (transformationType) {
+            case DFT -> runFourier(SignalOperations.dft(samples), fs / size, "dft");
+            case FFT -> runFourier(SignalOperations.fftReal(samples), fs / size, "fft");
             case DCT -> runCosine(SignalOperations.dctII(samples), fs, "dct");
             case FCT -> runCosine(SignalOperations.fctII(samples), fs, "fct");
         }
     }
 
-    private void runFourier(Complex[] result, double fs, String name) {
+    private void runFourier(Complex[] result, double frequencyStep, String name) {
         logger.info(Arrays.deepToString(result));
 
         int N = result.length;
 
-        Map<Double, Double> realSamples = new LinkedHashMap<>();
-        Map<Double, Double> imaginarySamples = new LinkedHashMap<>();
-        Map<Double,Double> modulusSamples = new LinkedHashMap<>();
-        Map<Double, Double> phaseSamples = new LinkedHashMap<>();
+        double[] realSamples = new double[N];
+        double[] imaginarySamples = new double[N];
+        double[] modulusSamples = new double[N];
+        double[] phaseSamples = new double[N];
 
         for (int i = 0; i < N; i++) {
             double real = result[i].real();
-            double imag = result[i].real();
-            double freq = (i * fs) / N;
-            realSamples.put(freq, real);
-            imaginarySamples.put(freq, imag);
-
-            double modulus = Math.hypot(real, imag);
-            modulusSamples.put(freq, modulus);
-
-            double phase = Math.atan2(imag, real);
-            phaseSamples.put(freq, phase);
+            double imag = result[i].imaginary();
+            realSamples[i] = real;
+            imaginarySamples[i] = imag;
+            modulusSamples[i] = Math.hypot(real, imag);
+            phaseSamples[i] = Math.atan2(imag, real);
         }
 
-        Signal realSignal = SignalFactory.createSignal(realSamples);
+        Signal realSignal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, frequencyStep, realSamples));
         realSignal.setName(name + "real");
         SignalRepository.getInstance().addSignal(realSignal);
 
-        Signal imaginarySignal = SignalFactory.createSignal(imaginarySamples);
+        Signal imaginarySignal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, frequencyStep, imaginarySamples));
         imaginarySignal.setName(name + "imaginary");
         SignalRepository.getInstance().addSignal(imaginarySignal);
 
-        Signal modulusSignal = SignalFactory.createSignal(modulusSamples);
+        Signal modulusSignal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, frequencyStep, modulusSamples));
         modulusSignal.setName(name + "modulus");
         SignalRepository.getInstance().addSignal(modulusSignal);
 
-        Signal phaseSignal = SignalFactory.createSignal(phaseSamples);
+        Signal phaseSignal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, frequencyStep, phaseSamples));
         phaseSignal.setName(name + "phase");
         SignalRepository.getInstance().addSignal(phaseSignal);
     }
@@ -345,13 +384,7 @@ public class TopMenuController {
 
         int N = samples.length;
 
-        Map<Double, Double> samplesMap = new LinkedHashMap<>();
-        for (int i = 0; i < N; i++) {
-            double freq = (i * fs) / N;
-            samplesMap.put(freq, samples[i]);
-        }
-
-        Signal signal = SignalFactory.createSignal(samplesMap);
+        Signal signal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, fs / N, samples));
         signal.setName(name + "cosine");
         SignalRepository.getInstance().addSignal(signal);
     }
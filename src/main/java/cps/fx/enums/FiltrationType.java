@@ -2,7 +2,11 @@ package cps.fx.enums;
 
 public enum FiltrationType {
     LOW_PASS("Low Pass"),
-    HIGH_PASS("High Pass");
+    HIGH_PASS("High Pass"),
+    BUTTERWORTH_LOW_PASS("Butterworth LP"),
+    BUTTERWORTH_HIGH_PASS("Butterworth HP"),
+    CHEBYSHEV_LOW_PASS("Chebyshev LP"),
+    CHEBYSHEV_HIGH_PASS("Chebyshev HP");
 
     private final String displayName;
 
@@ -4,5 +4,6 @@ public enum TransformationType {
     DFT,
     FFT,
     DCT,
-    FCT
+    FCT,
+    WELCH
 }
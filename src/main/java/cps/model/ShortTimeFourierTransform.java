@@ -0,0 +1,209 @@
+package cps.model;
+
+import cps.model.transform.FourierPlanCache;
+import cps.model.transform.GeneralFourierPlan;
+import cps.model.transform.RealFourierTransform;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Short-time Fourier transform. Samples are cut into overlapping frames of given size, taken every hop samples,
+ * multiplied by window and transformed with cached FFT plan. Frames are computed one at a time in buffers
+ * of the engine, so single instance must not be shared between threads.
+ */
+public class ShortTimeFourierTransform {
+
+    /**
+     * Receives spectrum of each frame. Arrays are reused for the next frame, so they must be copied if kept.
+     */
+    @FunctionalInterface
+    public interface FrameConsumer {
+        /**
+         * @param frame No. of frame, counted from 0.
+         * @param re Real parts of bins 0..frameSize/2.
+         * @param im Imaginary parts of bins 0..frameSize/2.
+         */
+        void accept(int frame, double[] re, double[] im);
+    }
+
+    @Getter
+    private final int frameSize;
+    @Getter
+    private final int hop;
+    private final double[] window;
+    // plan for sizes other than power of 2, which use real FFT
+    private final GeneralFourierPlan plan;
+
+    private final double[] frame;
+    private final double[] re;
+    private final double[] im;
+
+    /**
+     * @param frameSize No. of samples in single frame.
+     * @param hop No. of samples between starts of consecutive frames.
+     * @param window Window value at index n of frame of given size.
+     */
+    public ShortTimeFourierTransform(int frameSize, int hop, IntToDoubleFunction window) {
+        if (frameSize < 2) {
+            throw new IllegalArgumentException("Frame size must be at least 2");
+        }
+        if (hop < 1) {
+            throw new IllegalArgumentException("Hop must be positive");
+        }
+        this.frameSize = frameSize;
+        this.hop = hop;
+        this.window = new double[frameSize];
+        for (int n = 0; n < frameSize; n++) {
+            this.window[n] = window.applyAsDouble(n);
+        }
+
+        this.plan = (frameSize & (frameSize - 1)) == 0 ? null : FourierPlanCache.forLength(frameSize);
+        this.frame = new double[frameSize];
+        this.re = new double[frameSize];
+        this.im = new double[frameSize];
+    }
+
+    /**
+     * Creates engine with Hamming window.
+     * @param frameSize No. of samples in single frame.
+     * @param hop No. of samples between starts of consecutive frames.
+     * @return New engine.
+     */
+    public static ShortTimeFourierTransform hamming(int frameSize, int hop) {
+        return new ShortTimeFourierTransform(frameSize, hop, n -> SignalOperations.hammingWindow(n, frameSize));
+    }
+
+    /**
+     * @return No. of frequency bins of single frame, frameSize/2 + 1.
+     */
+    public int binCount() {
+        return frameSize / 2 + 1;
+    }
+
+    /**
+     * @param samplesCount No. of samples.
+     * @return No. of full frames fitting in given samples.
+     */
+    public int frameCount(int samplesCount) {
+        return samplesCount < frameSize ? 0 : 1 + (samplesCount - frameSize) / hop;
+    }
+
+    /**
+     * Transforms frames one by one, passing spectrum of each to consumer.
+     * @param samples Discrete samples.
+     * @param consumer Receiver of frame spectra.
+     */
+    public void process(double[] samples, FrameConsumer consumer) {
+        int frames = frameCount(samples.length);
+        for (int f = 0; f < frames; f++) {
+            transformFrame(samples, f * hop);
+            consumer.accept(f, re, im);
+        }
+    }
+
+    /**
+     * Computes magnitude spectrogram of samples.
+     * @param samples Discrete samples.
+     * @param samplingFrequency Sampling frequency of samples.
+     * @return Matrix of magnitudes, frames by bins.
+     */
+    public Spectrogram spectrogram(double[] samples, double samplingFrequency) {
+        int bins = binCount();
+        int frames = frameCount(samples.length);
+        double[] magnitudes = new double[frames * bins];
+        process(samples, (f, frameRe, frameIm) -> {
+            int offset = f * bins;
+            for (int k = 0; k < bins; k++) {
+                magnitudes[offset + k] = Math.hypot(frameRe[k], frameIm[k]);
+            }
+        });
+        return new Spectrogram(frames, bins, magnitudes, hop / samplingFrequency, samplingFrequency / frameSize);
+    }
+
+    /**
+     * Creates stream accepting samples in chunks of any size, for signals not held in memory at once.
+     * @param consumer Receiver of frame spectra.
+     * @return New stream.
+     */
+    public FrameStream stream(FrameConsumer consumer) {
+        return new FrameStream(consumer);
+    }
+
+    /**
+     * Collects samples pushed in chunks and transforms each frame as soon as it is complete.
+     * Only last frameSize samples are kept.
+     */
+    public class FrameStream {
+        private final FrameConsumer consumer;
+        private final double[] buffer = new double[frameSize];
+        // samples in buffer, and samples left to skip before next frame starts when hop exceeds frame size
+        private int filled;
+        private int skip;
+        private int frames;
+
+        private FrameStream(FrameConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        /**
+         * Pushes next samples of signal.
+         * @param samples Array with samples.
+         * @param from Index of first sample, inclusive.
+         * @param to Index of last sample, exclusive.
+         */
+        public void push(double[] samples, int from, int to) {
+            int i = from;
+            while (i < to) {
+                if (skip > 0) {
+                    int skipped = Math.min(skip, to - i);
+                    skip -= skipped;
+                    i += skipped;
+                    continue;
+                }
+
+                int copied = Math.min(frameSize - filled, to - i);
+                System.arraycopy(samples, i, buffer, filled, copied);
+                filled += copied;
+                i += copied;
+
+                if (filled == frameSize) {
+                    transformFrame(buffer, 0);
+                    consumer.accept(frames++, re, im);
+
+                    int kept = Math.max(0, frameSize - hop);
+                    System.arraycopy(buffer, frameSize - kept, buffer, 0, kept);
+                    filled = kept;
+                    skip = Math.max(0, hop - frameSize);
+                }
+            }
+        }
+
+        public void push(double[] samples) {
+            push(samples, 0, samples.length);
+        }
+
+        /**
+         * @return No. of frames transformed so far.
+         */
+        public int getFrameCount() {
+            return frames;
+        }
+    }
+
+    private void transformFrame(double[] samples, int offset) {
+        for (int n = 0; n < frameSize; n++) {
+            frame[n] = samples[offset + n] * window[n];
+        }
+
+        if (plan == null) {
+            RealFourierTransform.forward(frame, re, im);
+            return;
+        }
+
+        System.arraycopy(frame, 0, re, 0, frameSize);
+        Arrays.fill(im, 0.0);
+        plan.forward(re, im);
+    }
+}
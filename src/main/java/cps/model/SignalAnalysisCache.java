@@ -0,0 +1,103 @@
+package cps.model;
+
+import cps.model.signals.SampleBuffer;
+import cps.model.signals.Signal;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, thread-safe cache of statistics, measures, histograms and spectra of signals, keyed by version
+ * of their samples. Setting new samples of signal changes its version, so stale results are never returned
+ * and are dropped as least recently used. Results are computed outside of lock, so two threads may compute
+ * the same one at once, and are returned as read-only views or copies.
+ */
+public final class SignalAnalysisCache {
+    private static final int MAX_RESULTS = 64;
+
+    private enum Kind {
+        STATISTICS, QUANTILES, HISTOGRAM, MEASURES, PSD
+    }
+
+    // version of base signal is used only by measures, parameter by histogram and spectrum
+    private record Key(Kind kind, long version, long baseVersion, int parameter) {
+    }
+
+    private static final Map<Key, Object> results = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+            return size() > MAX_RESULTS;
+        }
+    };
+
+    private SignalAnalysisCache() {
+    }
+
+    /**
+     * @see StatisticTool#getStatistics(double[])
+     */
+    public static Map<String, Double> getStatistics(Signal signal) {
+        return get(new Key(Kind.STATISTICS, signal.getVersion(), 0, 0),
+                () -> Collections.unmodifiableMap(StatisticTool.getStatistics(signal.getSampleBuffer().values())));
+    }
+
+    /**
+     * @see StatisticTool#getQuantiles(double[])
+     */
+    public static Map<String, Double> getQuantiles(Signal signal) {
+        return get(new Key(Kind.QUANTILES, signal.getVersion(), 0, 0),
+                () -> Collections.unmodifiableMap(StatisticTool.getQuantiles(signal.getSampleBuffer().values())));
+    }
+
+    /**
+     * @see StatisticTool#createHistogramData(int, double[])
+     */
+    public static Map<String, Integer> getHistogramData(Signal signal, int numBins) {
+        return get(new Key(Kind.HISTOGRAM, signal.getVersion(), 0, numBins),
+                () -> Collections.unmodifiableMap(StatisticTool.createHistogramData(numBins, signal.getSampleBuffer().values())));
+    }
+
+    /**
+     * @see StatisticTool#getMeasures(SampleBuffer, SampleBuffer)
+     */
+    public static Map<String, Double> getMeasures(Signal baseSignal, Signal signal) {
+        return get(new Key(Kind.MEASURES, signal.getVersion(), baseSignal.getVersion(), 0),
+                () -> Collections.unmodifiableMap(StatisticTool.getMeasures(baseSignal.getSampleBuffer(), signal.getSampleBuffer())));
+    }
+
+    /**
+     * Estimates power spectral density of signal with segments overlapping by half.
+     * @param signal Signal object containing discrete set of samples.
+     * @param segmentSize No. of samples in single segment.
+     * @return New frequency-domain signal of density, see {@link WelchEstimator#estimate(Signal)}.
+     */
+    public static Signal getPowerSpectralDensity(Signal signal, int segmentSize) {
+        double samplingFrequency = 1 / signal.getTimeStep();
+        double[] psd = get(new Key(Kind.PSD, signal.getVersion(), 0, segmentSize),
+                () -> WelchEstimator.halfOverlap(segmentSize).estimate(signal.getSampleBuffer().values(), samplingFrequency));
+
+        Signal psdSignal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, samplingFrequency / segmentSize, psd));
+        psdSignal.setName("psd");
+        return psdSignal;
+    }
+
+    public static synchronized void clear() {
+        results.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T get(Key key, Supplier<T> computation) {
+        synchronized (SignalAnalysisCache.class) {
+            Object result = results.get(key);
+            if (result != null) {
+                return (T) result;
+            }
+        }
+        T result = computation.get();
+        synchronized (SignalAnalysisCache.class) {
+            return (T) results.computeIfAbsent(key, k -> result);
+        }
+    }
+}
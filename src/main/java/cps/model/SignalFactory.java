@@ -1,7 +1,9 @@
 package cps.model;
 
+import cps.model.filter.PolyphaseResampler;
 import cps.model.signals.PeriodicSignal;
 import cps.model.signals.PolygonalSignal;
+import cps.model.signals.SampleBuffer;
 import cps.model.signals.Signal;
 import cps.model.signals.SignalType;
 
@@ -16,6 +18,7 @@ public class SignalFactory {
     private static int quantizationBits = 8;
     private static String quantizationType = "none";
 
+    private static final double GRID_TOLERANCE = 1e-9;
     private static final String PARAM_NO_TYPE_ERROR = "No. of param no equal to type: ";
 
     private SignalFactory() {
@@ -68,21 +71,32 @@ public class SignalFactory {
             throw new IllegalArgumentException("empty samples");
         }
 
-        List<Double> timeStamps = new ArrayList<>(timeStampSamples.keySet());
-        Collections.sort(timeStamps);
+        double[] timestamps = timeStampSamples.keySet().stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        double[] samples = new double[timestamps.length];
+        for (int i = 0; i < timestamps.length; i++) {
+            samples[i] = timeStampSamples.get(timestamps[i]);
+        }
 
-        double startTime = timeStamps.getFirst();
-        double durationTime = timeStamps.getLast() - startTime;
+        return createSignal(SampleBuffer.of(timestamps, samples));
+    }
 
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timeStamp : timeStamps) {
-            samples.putLast(timeStamp, timeStampSamples.get(timeStamp));
+    /**
+     * Creates custom signal from quantized copy of given buffer. Given buffer is not changed.
+     * @param sampleBuffer Buffer of samples, sorted by timestamps.
+     * @return New signal object.
+     */
+    public static Signal createSignal(SampleBuffer sampleBuffer) {
+        if (sampleBuffer.size() == 0) {
+            throw new IllegalArgumentException("empty samples");
         }
 
+        double startTime = sampleBuffer.getStartTime();
+        double durationTime = sampleBuffer.getEndTime() - startTime;
+
         return Signal.builder()
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(sampleBuffer.withValues(quantizeSamples(sampleBuffer.values().clone())))
                 .signalType(SignalType.CUSTOM)
                 .build();
     }
@@ -99,25 +113,51 @@ public class SignalFactory {
     }
 
     public static Signal createSignalWithQuantization(Signal signal, int quantizationBits, String quantizationType) {
-        Map<Double, Double> timeStampSamples = signal.getTimestampSamples();
-
         SignalFactory.quantizationBits = quantizationBits;
         SignalFactory.quantizationType = quantizationType;
 
-        return createSignal(timeStampSamples);
+        return createSignal(signal.getSampleBuffer());
     }
 
     public static Signal createNewFromSamplingExistingOne(Signal signal, double sampleRate) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = signal.getStartTime(); timestamp < signal.getStartTime() + signal.getDurationTime(); timestamp += sampleRate) {
-            samples.putLast(timestamp, signal.getTimestampSamples().get(timestamp));
+        SampleBuffer source = signal.getSampleBuffer();
+        int count = sampleCount(signal.getDurationTime(), sampleRate, false);
+        double[] samples = new double[count];
+        for (int i = 0; i < count; i++) {
+            int index = source.indexOf(signal.getStartTime() + i * sampleRate);
+            samples[i] = index < 0 ? 0.0 : source.getValue(index);
+        }
+
+        return Signal.builder()
+                .amplitude(signal.getAmplitude())
+                .startTime(signal.getStartTime())
+                .durationTime(signal.getDurationTime())
+                .sampleBuffer(SampleBuffer.uniform(signal.getStartTime(), sampleRate, quantizeSamples(samples)))
+                .signalType(signal.getSignalType())
+                .build();
+    }
+
+    /**
+     * Changes sample rate of signal by L/M with polyphase filter, which suppresses aliasing.
+     * @param signal Signal of uniformly spaced samples.
+     * @param interpolation Interpolation factor L.
+     * @param decimation Decimation factor M.
+     * @return New signal with sample step multiplied by M/L.
+     */
+    public static Signal createResampledSignal(Signal signal, int interpolation, int decimation) {
+        SampleBuffer source = signal.getSampleBuffer();
+        if (!source.isUniform()) {
+            throw new IllegalArgumentException("Resampled signal must have uniform samples");
         }
 
+        double[] samples = new PolyphaseResampler(interpolation, decimation).resample(source.values());
+        double step = source.getStep() * decimation / interpolation;
+
         return Signal.builder()
                 .amplitude(signal.getAmplitude())
                 .startTime(signal.getStartTime())
                 .durationTime(signal.getDurationTime())
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(source.getStartTime(), step, quantizeSamples(samples)))
                 .signalType(signal.getSignalType())
                 .build();
     }
@@ -125,100 +165,104 @@ public class SignalFactory {
     // ======== CONTINUOUS SIGNALS ========
 
     private static Signal createUniformNoise(double amplitude, double startTime, double durationTime) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = startTime; timestamp < startTime + durationTime; timestamp += sampleStep) {
-            samples.putLast(timestamp, getUniformValue(amplitude));
+        double[] samples = new double[sampleCount(durationTime, sampleStep, false)];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = getUniformValue(amplitude);
         }
 
         return Signal.builder()
                 .amplitude(amplitude)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(startTime, sampleStep, quantizeSamples(samples)))
                 .signalType(SignalType.UNIFORM_NOISE)
                 .build();
     }
 
     private static Signal createGaussNoise(double amplitude, double startTime, double durationTime) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = startTime; timestamp < startTime + durationTime; timestamp += sampleStep) {
-            samples.putLast(timestamp,random.nextGaussian() * amplitude);
+        double[] samples = new double[sampleCount(durationTime, sampleStep, false)];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = random.nextGaussian() * amplitude;
         }
 
         return Signal.builder()
                 .amplitude(amplitude)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(startTime, sampleStep, quantizeSamples(samples)))
                 .signalType(SignalType.GAUSS_NOISE)
                 .build();
     }
 
     private static Signal createSineSignal(double amplitude, double startTime, double durationTime, double period) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = startTime; timestamp <= startTime + durationTime; timestamp += sampleStep) {
-            samples.putLast(timestamp, amplitude * Math.sin(2 * Math.PI / period * timestamp));
+        double[] samples = new double[sampleCount(durationTime, sampleStep, true)];
+        for (int i = 0; i < samples.length; i++) {
+            double timestamp = startTime + i * sampleStep;
+            samples[i] = amplitude * Math.sin(2 * Math.PI / period * timestamp);
         }
 
         return PeriodicSignal.builder()
                 .amplitude(amplitude)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(startTime, sampleStep, quantizeSamples(samples)))
                 .signalType(SignalType.SINE)
                 .period(period)
                 .build();
     }
 
     private static Signal createSineHalfSignal(double amplitude, double startTime, double durationTime, double period) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = startTime; timestamp < startTime + durationTime; timestamp += sampleStep) {
+        double[] samples = new double[sampleCount(durationTime, sampleStep, false)];
+        for (int i = 0; i < samples.length; i++) {
+            double timestamp = startTime + i * sampleStep;
             double sinValue = Math.sin(2 * Math.PI / period * (timestamp - startTime));
             double halfRectified = 0.5 * amplitude * (sinValue + Math.abs(sinValue));
-            samples.putLast(timestamp, halfRectified);
+            samples[i] = halfRectified;
         }
 
         return PeriodicSignal.builder()
                 .amplitude(amplitude)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(startTime, sampleStep, quantizeSamples(samples)))
                 .signalType(SignalType.SINE_HALF)
                 .period(period)
                 .build();
     }
 
     private static Signal createSineFullSignal(double amplitude, double startTime, double durationTime, double period) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = startTime; timestamp < startTime + durationTime; timestamp += sampleStep) {
+        double[] samples = new double[sampleCount(durationTime, sampleStep, false)];
+        for (int i = 0; i < samples.length; i++) {
+            double timestamp = startTime + i * sampleStep;
             // Formula: x(t) = A * |sin(2π/T(t-t₁))|
             double absValue = Math.abs(Math.sin(2 * Math.PI / period * (timestamp - startTime)));
-            samples.putLast(timestamp, amplitude * absValue);
+            samples[i] = amplitude * absValue;
         }
 
         return PeriodicSignal.builder()
                 .amplitude(amplitude)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(startTime, sampleStep, quantizeSamples(samples)))
                 .signalType(SignalType.SINE_FULL)
                 .period(period)
                 .build();
     }
 
     private static Signal createRectangleSignal(double amplitude, double startTime, double durationTime, double period, double dutyCycle) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = startTime; timestamp < startTime + durationTime; timestamp += sampleStep) {
+        double[] samples = new double[sampleCount(durationTime, sampleStep, false)];
+        for (int i = 0; i < samples.length; i++) {
+            double timestamp = startTime + i * sampleStep;
             double time = (timestamp - startTime) % period;
             double value = (time < dutyCycle * period) ? amplitude : 0;
-            samples.putLast(timestamp, value);
+            samples[i] = value;
         }
 
         return PolygonalSignal.builder()
                 .amplitude(amplitude)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(startTime, sampleStep, quantizeSamples(samples)))
                 .signalType(SignalType.RECTANGLE)
                 .period(period)
                 .dutyCycle(dutyCycle)
@@ -226,18 +270,19 @@ public class SignalFactory {
     }
 
     private static Signal createRectangleSymmetricSignal(double amplitude, double startTime, double durationTime, double period, double dutyCycle) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = startTime; timestamp < startTime + durationTime; timestamp += sampleStep) {
+        double[] samples = new double[sampleCount(durationTime, sampleStep, false)];
+        for (int i = 0; i < samples.length; i++) {
+            double timestamp = startTime + i * sampleStep;
             double time = (timestamp - startTime) % period;
             double value = (time < dutyCycle * period) ? amplitude : -amplitude;
-            samples.putLast(timestamp, value);
+            samples[i] = value;
         }
 
         return PolygonalSignal.builder()
                 .amplitude(amplitude)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(startTime, sampleStep, quantizeSamples(samples)))
                 .signalType(SignalType.RECTANGLE_SYMETRIC)
                 .period(period)
                 .dutyCycle(dutyCycle)
@@ -245,8 +290,9 @@ public class SignalFactory {
     }
 
     private static Signal createTriangleSignal(double amplitude, double startTime, double durationTime, double period, double dutyCycle) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = startTime; timestamp < startTime + durationTime; timestamp += sampleStep) {
+        double[] samples = new double[sampleCount(durationTime, sampleStep, false)];
+        for (int i = 0; i < samples.length; i++) {
+            double timestamp = startTime + i * sampleStep;
             double time = (timestamp - startTime) % period;
             double value;
 
@@ -258,14 +304,14 @@ public class SignalFactory {
                 value = amplitude - ((time - dutyCycle * period) / ((1 - dutyCycle) * period)) * amplitude;
             }
 
-            samples.putLast(timestamp, value);
+            samples[i] = value;
         }
 
         return PolygonalSignal.builder()
                 .amplitude(amplitude)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(startTime, sampleStep, quantizeSamples(samples)))
                 .signalType(SignalType.TRIANGLE)
                 .period(period)
                 .dutyCycle(dutyCycle)
@@ -273,14 +319,15 @@ public class SignalFactory {
     }
 
     private static Signal createUnitStepSignal(double amplitude, double startTime, double durationTime, double stepTime) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = startTime; timestamp < startTime + durationTime; timestamp += sampleStep) {
+        double[] samples = new double[sampleCount(durationTime, sampleStep, false)];
+        for (int i = 0; i < samples.length; i++) {
+            double timestamp = startTime + i * sampleStep;
             if (timestamp < stepTime) {
-                samples.putLast(timestamp, 0.0);
+                samples[i] = 0.0;
             } else if (timestamp == stepTime) {
-                samples.putLast(timestamp, amplitude / 2);
+                samples[i] = amplitude / 2;
             } else {
-                samples.putLast(timestamp, amplitude);
+                samples[i] = amplitude;
             }
         }
 
@@ -288,7 +335,7 @@ public class SignalFactory {
                 .amplitude(amplitude)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(startTime, sampleStep, quantizeSamples(samples)))
                 .signalType(SignalType.UNIT_STEP)
                 .build();
     }
@@ -296,33 +343,35 @@ public class SignalFactory {
     // ======== DISCRETE SIGNALS ========
 
     private static Signal createUnitImpulseSignal(double amplitude, double startTime, double durationTime, double period, double impulseTime) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = startTime; timestamp < startTime + durationTime; timestamp += period) {
+        double[] samples = new double[sampleCount(durationTime, period, false)];
+        for (int i = 0; i < samples.length; i++) {
+            double timestamp = startTime + i * period;
             double value = (timestamp == impulseTime) ? amplitude : 0;
-            samples.putLast(timestamp, value);
+            samples[i] = value;
         }
 
         return Signal.builder()
                 .amplitude(amplitude)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(startTime, period, quantizeSamples(samples)))
                 .signalType(SignalType.UNIT_IMPULS)
                 .build();
     }
 
     private static Signal createImpulseNoiseSignal(double amplitude, double startTime, double durationTime, double period, double probability) {
-        LinkedHashMap<Double, Double> samples = new LinkedHashMap<>();
-        for (double timestamp = startTime; timestamp < startTime + durationTime; timestamp += period) {
+        double[] samples = new double[sampleCount(durationTime, period, false)];
+        for (int i = 0; i < samples.length; i++) {
+            double timestamp = startTime + i * period;
             double value = (random.nextDouble() < probability) ? amplitude : 0;
-            samples.putLast(timestamp, value);
+            samples[i] = value;
         }
 
         return Signal.builder()
                 .amplitude(amplitude)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(quantizeSamples(samples))
+                .sampleBuffer(SampleBuffer.uniform(startTime, period, quantizeSamples(samples)))
                 .signalType(SignalType.IMPULSE_NOISE)
                 .build();
     }
@@ -346,15 +395,33 @@ public class SignalFactory {
         return quantized;
     }
 
-    private static LinkedHashMap<Double, Double> quantizeSamples(LinkedHashMap<Double, Double> samples) {
-        double min = Collections.min(samples.values());
-        double max = Collections.max(samples.values());
+    private static double[] quantizeSamples(double[] samples) {
+        if (quantizationType.equals("none") || samples.length == 0) {
+            return samples;
+        }
 
-        LinkedHashMap<Double, Double> quantized = new LinkedHashMap<>();
-        for (var entry : samples.entrySet()) {
-            quantized.put(entry.getKey(), quantize(entry.getValue(), min, max));
+        double min = Arrays.stream(samples).min().orElse(0.0);
+        double max = Arrays.stream(samples).max().orElse(0.0);
+
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = quantize(samples[i], min, max);
         }
-        return quantized;
+        return samples;
+    }
+
+    /**
+     * Calculates no. of samples on uniform grid, tolerating rounding errors of given step.
+     * @param durationTime Duration of signal.
+     * @param step Distance between consecutive samples.
+     * @param inclusive Whether sample at the end of duration is included.
+     * @return No. of samples.
+     */
+    private static int sampleCount(double durationTime, double step, boolean inclusive) {
+        double steps = durationTime / step;
+        if (inclusive) {
+            return (int) Math.floor(steps + GRID_TOLERANCE) + 1;
+        }
+        return Math.max(0, (int) Math.ceil(steps - GRID_TOLERANCE));
     }
 
     private static double getUniformValue(double range) {
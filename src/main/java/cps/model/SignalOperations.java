@@ -1,18 +1,31 @@
 package cps.model;
 
 import cps.dto.FiltrationDto;
+import cps.model.filter.BiquadCascade;
+import cps.model.filter.FIRDesignCache;
+import cps.model.filter.FilterBank;
+import cps.model.filter.IIRDesign;
+import cps.model.filter.SymmetricFIRKernel;
+import cps.model.filter.WindowType;
 import cps.model.signals.Complex;
+import cps.model.signals.SampleBuffer;
 import cps.model.signals.Signal;
 import cps.model.signals.SignalType;
+import cps.model.transform.Correlation;
+import cps.model.transform.FastConvolution;
+import cps.model.transform.FourierPlanCache;
+import cps.model.transform.FourierTransform;
+import cps.model.transform.RealFourierTransform;
 
 import java.util.*;
-import java.util.function.UnaryOperator;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
 
 public class SignalOperations {
 
     private static final Logger logger = Logger.getLogger(String.valueOf(SignalOperations.class));
+    private static final int IMPULSE_RESPONSE_LENGTH = 128;
 
     private SignalOperations() {
     }
@@ -22,27 +35,10 @@ public class SignalOperations {
     // =====================================================
 
     private static Signal operation(List<Signal> signals, String operation) {
-        LinkedHashMap<Double, Double> timestampSamples = new LinkedHashMap<>();
-
-        for (Signal signal : signals) {
-            for (Map.Entry<Double, Double> entry : signal.getTimestampSamples().entrySet()) {
-                double value = switch (operation) {
-                    case "sum" -> timestampSamples.getOrDefault(entry.getKey(), 0.0) + entry.getValue();
-                    case "difference" -> timestampSamples.getOrDefault(entry.getKey(), 0.0) - entry.getValue();
-                    case "multiply" -> timestampSamples.getOrDefault(entry.getKey(), 0.0) * entry.getValue();
-                    case "divide" -> {
-                        double temp = entry.getValue();
-                        if (temp == 0.0) {
-                            yield 0.0;
-                        }
-                        yield timestampSamples.get(entry.getKey()) / temp;
-                    }
-                    default -> throw new IllegalStateException("Unexpected value: " + operation);
-                };
-
-                timestampSamples.put(entry.getKey(), value);
-            }
-        }
+        SampleBuffer first = signals.getFirst().getSampleBuffer();
+        boolean aligned = signals.stream().allMatch(signal -> signal.getSampleBuffer().isAlignedWith(first));
+
+        SampleBuffer result = aligned ? alignedOperation(signals, operation) : mergedOperation(signals, operation);
 
         double startTime = signals.stream().mapToDouble(Signal::getStartTime).min().orElse(0.0);
         double durationTime = signals.stream().mapToDouble(Signal::getDurationTime).max().orElse(0.0);
@@ -51,10 +47,58 @@ public class SignalOperations {
                 .signalType(SignalType.CUSTOM)
                 .startTime(startTime)
                 .durationTime(durationTime)
-                .timestampSamples(timestampSamples)
+                .sampleBuffer(result)
                 .build();
     }
 
+    /**
+     * Operation on signals sharing the same timestamps, samples are matched by index.
+     */
+    private static SampleBuffer alignedOperation(List<Signal> signals, String operation) {
+        SampleBuffer first = signals.getFirst().getSampleBuffer();
+        double[] values = first.values().clone();
+
+        for (int s = 1; s < signals.size(); s++) {
+            double[] other = signals.get(s).getSampleBuffer().values();
+            for (int i = 0; i < values.length; i++) {
+                values[i] = applyOperation(operation, values[i], other[i]);
+            }
+        }
+        return first.withValues(values);
+    }
+
+    /**
+     * Operation on signals with different timestamps, samples are matched by timestamp.
+     * Samples of first signal are taken as they are, timestamps missing in previous signals count as 0.
+     */
+    private static SampleBuffer mergedOperation(List<Signal> signals, String operation) {
+        TreeMap<Double, Double> timestampSamples = new TreeMap<>();
+
+        SampleBuffer first = signals.getFirst().getSampleBuffer();
+        for (int i = 0; i < first.size(); i++) {
+            timestampSamples.put(first.getTimestamp(i), first.getValue(i));
+        }
+        for (int s = 1; s < signals.size(); s++) {
+            SampleBuffer sampleBuffer = signals.get(s).getSampleBuffer();
+            for (int i = 0; i < sampleBuffer.size(); i++) {
+                double timestamp = sampleBuffer.getTimestamp(i);
+                double current = timestampSamples.getOrDefault(timestamp, 0.0);
+                timestampSamples.put(timestamp, applyOperation(operation, current, sampleBuffer.getValue(i)));
+            }
+        }
+        return SampleBuffer.of(timestampSamples);
+    }
+
+    private static double applyOperation(String operation, double current, double value) {
+        return switch (operation) {
+            case "sum" -> current + value;
+            case "difference" -> current - value;
+            case "multiply" -> current * value;
+            case "divide" -> value == 0.0 ? 0.0 : current / value;
+            default -> throw new IllegalStateException("Unexpected value: " + operation);
+        };
+    }
+
     public static Signal sum(List<Signal> signals) {
         return operation(signals, "sum");
     }
@@ -88,8 +132,19 @@ public class SignalOperations {
      * @return List of calculated product of DFT being imaginary numbers.
      */
     public static Complex[] dft(Complex[] samples, int log2N) {
-        int N = 1 << log2N;
+        return dftOfSize(samples, 1 << log2N);
+    }
+
+    /**
+     * Discrete Fourier Transform of all given samples, of any length.
+     * @param samples Array of real samples.
+     * @return Product of DFT, normalized by 1/N.
+     */
+    public static Complex[] dft(double[] samples) {
+        return dftOfSize(createComplexSamples(samples), samples.length);
+    }
 
+    private static Complex[] dftOfSize(Complex[] samples, int N) {
         Complex[] transformedSamples = new Complex[N];
 
         for (int m = 0; m < N; m++) {
@@ -107,38 +162,183 @@ public class SignalOperations {
         return transformedSamples;
     }
 
+    /**
+     * Fast Fourier Transform of first 2^log2N real samples, normalized by 1/N to match {@link #dft(double[], int)}.
+     * Computed as real transform, upper half of spectrum is filled by conjugate symmetry.
+     *
+     * @param samples Array of real samples.
+     * @param log2N Number of bits.
+     * @return Product of FFT, N values.
+     */
     public static Complex[] fftDIF(double[] samples, int log2N) {
-        Complex[] complexSamples = createComplexSamples(samples);
-        return fftDIF(complexSamples, log2N);
+        int N = 1 << log2N;
+        if (N == 1) {
+            return new Complex[]{new Complex(samples[0], 0)};
+        }
+
+        double[] re = new double[N / 2 + 1];
+        double[] im = new double[N / 2 + 1];
+        RealFourierTransform.forward(Arrays.copyOf(samples, N), re, im);
+        return toFullSpectrum(re, im, N, 1.0 / N);
     }
 
-    public static Complex[] fftDIF(Complex[] complexSamples, int log2N) {
+    /**
+     * Fast Fourier Transform of first 2^log2N real samples, normalized by 1/N.
+     * Only non-redundant half of spectrum is returned, as rest is conjugate of it.
+     *
+     * @param samples Array of real samples.
+     * @param log2N Number of bits, at least 1.
+     * @return Product of FFT, N/2 + 1 values for frequencies from 0 to fs/2.
+     */
+    public static Complex[] fftReal(double[] samples, int log2N) {
         int N = 1 << log2N;
 
-        flipBits(complexSamples, log2N);
+        double[] re = new double[N / 2 + 1];
+        double[] im = new double[N / 2 + 1];
+        RealFourierTransform.forward(Arrays.copyOf(samples, N), re, im);
+
+        Complex[] result = new Complex[re.length];
+        for (int k = 0; k < re.length; k++) {
+            result[k] = new Complex(re[k] / N, im[k] / N);
+        }
+        return result;
+    }
+
+    /**
+     * Fast Fourier Transform of all given real samples, of any length, normalized by 1/N.
+     * Powers of 2 use real transform, other lengths mixed-radix or Bluestein algorithm.
+     *
+     * @param samples Array of real samples.
+     * @return Product of FFT, N/2 + 1 values for frequencies from 0 to fs/2.
+     */
+    public static Complex[] fftReal(double[] samples) {
+        int N = samples.length;
+        if (N > 1 && (N & (N - 1)) == 0) {
+            return fftReal(samples, Integer.numberOfTrailingZeros(N));
+        }
+
+        double[] re = samples.clone();
+        double[] im = new double[N];
+        FourierTransform.fft(re, im);
+
+        Complex[] result = new Complex[N / 2 + 1];
+        for (int k = 0; k < result.length; k++) {
+            result[k] = new Complex(re[k] / N, im[k] / N);
+        }
+        return result;
+    }
+
+    /**
+     * Inverse Discrete Fourier Transform, restores samples transformed by {@link #dft(double[])}.
+     * As forward transform is normalized by 1/N, inverse one is not.
+     * @param spectrum Product of DFT, N values.
+     * @return Array of N restored samples.
+     */
+    public static Complex[] idft(Complex[] spectrum) {
+        int N = spectrum.length;
+        Complex[] samples = new Complex[N];
 
-        for (int iteration = 0; iteration < log2N; iteration++) { // dla każdej transformaty zaczynając od 2 elementowej
-            int step = 1 << iteration; // odległość między kolejnymi elementami w transformacie do operacji motylkowej
-            int size = step << 1; // rozmiar transformaty
+        for (int n = 0; n < N; n++) {
+            double real = 0.0;
+            double imag = 0.0;
 
-            for (int i = 0; i < N; i += size) { // od pierwszego elementu z każdej transformaty
-                for (int j = 0; j < step; j++) { // po każdym elemencie w transformacie
-                    int m = i + j; // indeks elementu w wynikowej tablicy
+            for (int m = 0; m < N; m++) {
+                double omega = 2 * Math.PI * m * n / N;
+                double cos = Math.cos(omega);
+                double sin = Math.sin(omega);
+                real += spectrum[m].real() * cos - spectrum[m].imaginary() * sin;
+                imag += spectrum[m].real() * sin + spectrum[m].imaginary() * cos;
+            }
+            samples[n] = new Complex(real, imag);
+        }
+
+        return samples;
+    }
+
+    /**
+     * Inverse Fast Fourier Transform of half spectrum of real samples, restores samples transformed by
+     * {@link #fftReal(double[])} or {@link #fftReal(double[], int)}. Uses the same cached plans as forward transform.
+     * @param spectrum N/2 + 1 values for frequencies from 0 to fs/2, normalized by 1/N.
+     * @param N No. of samples to restore, 2 * (spectrum.length - 1) or one more.
+     * @return Array of N restored real samples.
+     */
+    public static double[] ifftReal(Complex[] spectrum, int N) {
+        if (N < 1 || spectrum.length != N / 2 + 1) {
+            throw new IllegalArgumentException("Spectrum of %d values does not match %d samples".formatted(spectrum.length, N));
+        }
+        if (N == 1) {
+            return new double[]{spectrum[0].real()};
+        }
 
-                    double omega = 2 * Math.PI * j / size;
-                    Complex W = new Complex(Math.cos(omega), -Math.sin(omega));
-                    Complex first = complexSamples[m].copy();
-                    Complex second = complexSamples[m + step].copy();
+        if ((N & (N - 1)) == 0) {
+            double[] re = new double[spectrum.length];
+            double[] im = new double[spectrum.length];
+            toSplitArrays(spectrum, re, im);
 
-                    complexSamples[m] = first.plus(second).times(W);
-                    complexSamples[m + step] = first.minus(second).times(W);
-                }
+            // inverse real transform is normalized, so only missing scale of forward one is restored
+            double[] samples = new double[N];
+            RealFourierTransform.inverse(re, im, samples);
+            for (int n = 0; n < N; n++) {
+                samples[n] *= N;
             }
+            return samples;
+        }
+
+        double[] re = new double[N];
+        double[] im = new double[N];
+        for (int k = 0; k < spectrum.length; k++) {
+            re[k] = spectrum[k].real();
+            im[k] = spectrum[k].imaginary();
+        }
+        for (int k = spectrum.length; k < N; k++) {
+            re[k] = spectrum[N - k].real();
+            im[k] = -spectrum[N - k].imaginary();
+        }
+        FourierTransform.ifft(re, im);
+        return re;
+    }
+
+    private static Complex[] toFullSpectrum(double[] re, double[] im, int N, double scale) {
+        Complex[] result = new Complex[N];
+        for (int k = 0; k <= N / 2; k++) {
+            result[k] = new Complex(re[k] * scale, im[k] * scale);
+        }
+        for (int k = N / 2 + 1; k < N; k++) {
+            result[k] = new Complex(re[N - k] * scale, -im[N - k] * scale);
         }
+        return result;
+    }
 
+    /**
+     * Fast Fourier Transform of first 2^log2N samples, normalized by 1/N to match {@link #dft(Complex[], int)}.
+     * Transformed values replace the given ones.
+     *
+     * @param complexSamples Array of samples.
+     * @param log2N Number of bits.
+     * @return Given array, containing product of FFT.
+     */
+    public static Complex[] fftDIF(Complex[] complexSamples, int log2N) {
+        int N = 1 << log2N;
+
+        double[] re = new double[N];
+        double[] im = new double[N];
+        toSplitArrays(complexSamples, re, im);
+
+        FourierPlanCache.get(log2N).forward(re, im);
+
+        for (int i = 0; i < N; i++) {
+            complexSamples[i] = new Complex(re[i] / N, im[i] / N);
+        }
         return complexSamples;
     }
 
+    private static void toSplitArrays(Complex[] complexSamples, double[] re, double[] im) {
+        for (int i = 0; i < re.length; i++) {
+            re[i] = complexSamples[i].real();
+            im[i] = complexSamples[i].imaginary();
+        }
+    }
+
     private static Complex[] createComplexSamples(double[] samples) {
         Complex[] complexSamples = new Complex[samples.length];
         for (int i = 0; i < samples.length; i++) {
@@ -181,48 +381,57 @@ public class SignalOperations {
         return reversed;
     }
 
-    private static Complex[] createW(int N2) {
-        Complex[] W = new Complex[N2];
-        double omega;
-        for (int n = 0; n < N2; n++) {
-            omega = 2 * Math.PI * n / N2;
-            W[n] = new Complex(Math.cos(omega), Math.sin(omega));
+    public static Complex[] fft(double[] samples) {
+        int N = samples.length;
+        if (N == 1 || (N & (N - 1)) != 0) {
+            return fft(createComplexSamples(samples));
         }
-        return W;
-    }
 
-    // ===== RECURSIVE FFT =====
-
-    public static Complex[] fft(double[] samples) {
-        return fft(createComplexSamples(samples));
+        double[] re = new double[N / 2 + 1];
+        double[] im = new double[N / 2 + 1];
+        RealFourierTransform.forward(samples, re, im);
+        return toFullSpectrum(re, im, N, 1.0);
     }
 
+    /**
+     * Fast Fourier Transform without normalization.
+     * @param samples Array of samples, of any length.
+     * @return New array containing product of FFT.
+     */
     public static Complex[] fft(Complex[] samples) {
         int N = samples.length;
 
-        if (N == 1) {
-            return new Complex[]{samples[0]};
-        }
+        double[] re = new double[N];
+        double[] im = new double[N];
+        toSplitArrays(samples, re, im);
 
-        Complex[] even = new Complex[N / 2];
-        for (int k = 0; k < N / 2; k++) {
-            even[k] = samples[2 * k];
-        }
-        Complex[] evenFFT = fft(even);
+        FourierTransform.fft(re, im);
 
-        Complex[] odd = even;
-        for (int k = 0; k < N / 2; k++) {
-            odd[k] = samples[2 * k + 1];
+        Complex[] result = new Complex[N];
+        for (int k = 0; k < N; k++) {
+            result[k] = new Complex(re[k], im[k]);
         }
-        Complex[] oddFFT = fft(odd);
+        return result;
+    }
 
-        Complex[] result = new Complex[N];
-        for (int k = 0; k < N / 2; k++) {
-            double kth = -2 * k * Math.PI / N;
-            Complex W = new Complex(Math.cos(kth), Math.sin(kth));
+    /**
+     * Inverse Fast Fourier Transform, restores samples transformed by {@link #fft(Complex[])}.
+     * Normalized by 1/N, as forward transform is not.
+     * @param spectrum Product of FFT, of any length.
+     * @return New array containing restored samples.
+     */
+    public static Complex[] ifft(Complex[] spectrum) {
+        int N = spectrum.length;
 
-            result[k] = evenFFT[k].plus(W.times(oddFFT[k]));
-            result[k + N / 2] = evenFFT[k].minus(W.times(oddFFT[k]));
+        double[] re = new double[N];
+        double[] im = new double[N];
+        toSplitArrays(spectrum, re, im);
+
+        FourierTransform.ifft(re, im);
+
+        Complex[] result = new Complex[N];
+        for (int n = 0; n < N; n++) {
+            result[n] = new Complex(re[n] / N, im[n] / N);
         }
         return result;
     }
@@ -254,45 +463,56 @@ public class SignalOperations {
         return result;
     }
 
-    public static double[] fctII(double[] samples) {
-        int N = samples.length;
-        if ((N & (N - 1)) != 0) {
-            logger.warning("Samples must be a power of 2");
-            throw new IllegalArgumentException("Samples must be a power of 2");
-        }
-
+    /**
+     * Inverse cosine transformation (DCT-III), restores samples transformed by {@link #dctII(double[])}.
+     * @param coefficients Array of coefficients of cosine transformation.
+     * @return New array containing restored samples.
+     */
+    public static double[] dctIII(double[] coefficients) {
+        int N = coefficients.length;
         double c0 = Math.sqrt(1.0 / N);
         double cm = Math.sqrt(2.0 / N);
 
-        // 1. samples flip
-        samples = fctFlip(samples);
-
-        // 2. calculate fft of samples
-        int log2N = (int) (Math.log(N) / Math.log(2));
-        Complex[] fftResult = fftDIF(samples, log2N);
-
-        // 3. for every find real value of fftResult
         double[] result = new double[N];
-        for (int m = 0; m < N; m++) {
-            double sigma = Math.PI * m / (2 * N);
-            Complex W = new Complex(Math.cos(sigma), Math.sin(sigma));
+        for (int n = 0; n < N; n++) {
+            double sum = coefficients[0] * c0;
 
-            double value = fftResult[m].times(W).real();
+            for (int m = 1; m < N; m++) {
+                double omega = Math.PI * (2 * n + 1) * m / (2 * N);
+                sum += coefficients[m] * cm * Math.cos(omega);
+            }
 
-            if (m == 0) result[m] = value * c0;
-            else result[m] = value * cm;
+            result[n] = sum;
         }
+        return result;
+    }
 
+    /**
+     * Fast cosine transformation, computed from FFT of reordered samples (Makhoul's algorithm) with cached plan.
+     * Works for any length, powers of 2 use real transform.
+     * @param samples Array of samples to be transformed.
+     * @return New array containing transformed samples, equal to {@link #dctII(double[])}.
+     */
+    public static double[] fctII(double[] samples) {
+        if (samples.length == 0) {
+            throw new IllegalArgumentException("empty samples");
+        }
+        double[] result = new double[samples.length];
+        FourierPlanCache.forCosine(samples.length).forward(samples, result);
         return result;
     }
 
-    private static double[] fctFlip(double[] samples) {
-        int N = samples.length;
-        double[] result = new double[N];
-        for (int i = 0; i < N / 2; i++) {
-            result[2 * i] = samples[i];
-            result[2 * i + 1] = samples[N - 1 - i];
+    /**
+     * Fast inverse cosine transformation (DCT-III), restores samples transformed by {@link #fctII(double[])}.
+     * @param coefficients Array of coefficients of cosine transformation.
+     * @return New array containing restored samples.
+     */
+    public static double[] fctIII(double[] coefficients) {
+        if (coefficients.length == 0) {
+            throw new IllegalArgumentException("empty samples");
         }
+        double[] result = new double[coefficients.length];
+        FourierPlanCache.forCosine(coefficients.length).inverse(coefficients, result);
         return result;
     }
 
@@ -302,41 +522,71 @@ public class SignalOperations {
 
     public static List<Double> crossCorrelate(List<Double> samples1, List<Double> samples2) {
         double[] s1 = samples1.stream().mapToDouble(Double::doubleValue).toArray();
-        double[] s2 = samples2.reversed().stream().mapToDouble(Double::doubleValue).toArray();
-        logger.fine("s1: " + Arrays.toString(s1));
-        logger.fine("s2: " + Arrays.toString(s2));
-
-        int productSize = s1.length + s2.length - 1;
-        double[] product = new double[productSize];
-
-        for (int k = 0; k < s1.length; k++) {
-            double s1value = s1[k];
-            for (int i = s2.length - 1; i >= 0; i--) {
-                double s2value = s2[i];
-                double value = product[k + i] + s1value * s2value;
-                product[k + i] = value;
-            }
-        }
+        double[] s2 = samples2.stream().mapToDouble(Double::doubleValue).toArray();
+        return DoubleStream.of(crossCorrelate(s1, s2)).boxed().toList();
+    }
 
-        logger.fine("product: " + Arrays.toString(product));
-        return DoubleStream.of(product).boxed().toList();
+    /**
+     * Cross-correlation of discrete sets, being convolution with reversed second set.
+     * Long sets are correlated with FFT.
+     * @param s1 Array of 1st signal's values
+     * @param s2 Array of 2nd signal's values
+     * @return Product of correlation, s1.length + s2.length - 1 values.
+     */
+    public static double[] crossCorrelate(double[] s1, double[] s2) {
+        return Correlation.crossCorrelate(s1, s2, Correlation.Mode.FULL);
     }
 
-    public static Signal crossCorrelateSignal(Signal signal1, Signal signal2) {
-        List<Double> correlationProduct = crossCorrelate(
-                signal1.getSamples(),
-                signal2.getSamples()
-        );
+    /**
+     * Cross-correlation of discrete sets for chosen range of lags.
+     * @param s1 Array of 1st signal's values
+     * @param s2 Array of 2nd signal's values
+     * @param mode Range of lags: full, same as size of s1 or valid only.
+     * @return Product of correlation.
+     */
+    public static double[] crossCorrelate(double[] s1, double[] s2, Correlation.Mode mode) {
+        return Correlation.crossCorrelate(s1, s2, mode);
+    }
+
+    /**
+     * Cross-correlation of discrete sets for lags from -maxLag to maxLag.
+     * @param s1 Array of 1st signal's values
+     * @param s2 Array of 2nd signal's values
+     * @param maxLag Highest absolute lag.
+     * @return Product of correlation, 2 * maxLag + 1 values.
+     */
+    public static double[] crossCorrelate(double[] s1, double[] s2, int maxLag) {
+        return Correlation.crossCorrelate(s1, s2, maxLag);
+    }
 
-        Map<Double, Double> timeStampSamples = new LinkedHashMap<>();
-        double startTime = signal1.getStartTime();
-        double timeStep = signal1.getTimeStep();
+    /**
+     * Autocorrelation of discrete set, computed from its power spectrum.
+     * @param samples Array of signal's values
+     * @param mode Range of lags: full, same as size of samples or valid only.
+     * @return Product of autocorrelation.
+     */
+    public static double[] autocorrelate(double[] samples, Correlation.Mode mode) {
+        return Correlation.autocorrelate(samples, mode);
+    }
 
-        for (int i = 0; i < correlationProduct.size(); i++) {
-            timeStampSamples.put(startTime + i * timeStep, correlationProduct.get(i));
-        }
+    /**
+     * Autocorrelation of discrete set for lags from 0 to maxLag.
+     * @param samples Array of signal's values
+     * @param maxLag Highest lag.
+     * @return Product of autocorrelation, maxLag + 1 values.
+     */
+    public static double[] autocorrelate(double[] samples, int maxLag) {
+        return Correlation.autocorrelate(samples, maxLag);
+    }
+
+    public static Signal crossCorrelateSignal(Signal signal1, Signal signal2) {
+        double[] correlationProduct = crossCorrelate(
+                signal1.getSampleBuffer().values(),
+                signal2.getSampleBuffer().values()
+        );
 
-        return SignalFactory.createSignal(timeStampSamples);
+        return SignalFactory.createSignal(
+                SampleBuffer.uniform(signal1.getStartTime(), signal1.getTimeStep(), correlationProduct));
     }
 
     // =====================================================
@@ -344,10 +594,22 @@ public class SignalOperations {
     // =====================================================
 
     /**
-     * Implementation of convolution operation on discrete sets of numbers. Algorithm is
-     * based on 'Input-side algorithm' with O(s1.size() * s2.size()) complexity.
+     * Implementation of convolution operation on discrete sets of numbers.
+     * Short operands are convolved directly, with 'Input-side algorithm' of O(s1.length * s2.length) complexity,
+     * long ones with FFT and overlap-add.
      * Equation: (h * x)(n) = sum {h(k) * x(n - k)}
      *
+     * @param signal1 Array of 1st signal's values
+     * @param signal2 Array of 2nd signal's values
+     * @return Product of convolution
+     */
+    public static double[] convolve(double[] signal1, double[] signal2) {
+        return FastConvolution.convolve(signal1, signal2);
+    }
+
+    /**
+     * Convolution of boxed values, see {@link #convolve(double[], double[])}.
+     *
      * @param signal1 List of 1st signal's values
      * @param signal2 List of 2nd signal's values
      * @return Product of convolution
@@ -355,19 +617,7 @@ public class SignalOperations {
     public static List<Double> convolve(List<Double> signal1, List<Double> signal2) {
         double[] s1 = signal1.stream().mapToDouble(Double::doubleValue).toArray();
         double[] s2 = signal2.stream().mapToDouble(Double::doubleValue).toArray();
-
-        int productSize = s1.length + s2.length - 1;
-        double[] product = new double[productSize];
-
-        for (int k = 0; k < s1.length; k++) {
-            double s1value = s1[k];
-            for (int i = 0; i < s2.length; i++) {
-                double s2value = s2[i];
-                double value = product[k + i] + s1value * s2value;
-                product[k + i] = value;
-            }
-        }
-        return DoubleStream.of(product).boxed().toList();
+        return DoubleStream.of(convolve(s1, s2)).boxed().toList();
     }
 
     /**
@@ -378,7 +628,7 @@ public class SignalOperations {
      * @return Signal object with filtered samples.
      */
     public static FiltrationDto lowPassFIRFiltration(Signal signal, int M, double cutoffFrequency) {
-        return firFiltration(signal, M, cutoffFrequency, coefficients -> coefficients);
+        return firFiltration(signal, M, cutoffFrequency, FIRDesignCache.PassType.LOW_PASS);
     }
 
     /**
@@ -392,19 +642,60 @@ public class SignalOperations {
     public static FiltrationDto highPassFIRFiltration(Signal signal, int M, double cutoffFrequency) {
         cutoffFrequency = getHighPassCutoffFrequency(signal, cutoffFrequency);
 
-        return firFiltration(signal, M, cutoffFrequency, coefficients -> {
-            double[] coefficientsArray = coefficients.stream().mapToDouble(Double::doubleValue).toArray();
-            double[] modifiedCoefficientsArray = new double[coefficientsArray.length];
-            for (int n = 0; n < coefficientsArray.length; n++) {
-                double coefficient = (n % 2) == 0 ? coefficientsArray[n] : coefficientsArray[n] * (-1);
-                modifiedCoefficientsArray[n] = coefficient;
-            }
-            return DoubleStream.of(modifiedCoefficientsArray).boxed().toList();
-        });
+        return firFiltration(signal, M, cutoffFrequency, FIRDesignCache.PassType.HIGH_PASS);
+    }
+
+    /**
+     * Low pass filtration using IIR filter (pl. NOI), cascade of biquads. Few multiplies per sample
+     * regardless of sharpness of filter, but phase is not linear.
+     * @param signal Signal object containing discrete set of samples.
+     * @param approximation Butterworth or Chebyshev filter.
+     * @param order Order of filter.
+     * @param cutoffFrequency Cut-off frequency of filter, required smaller than half of sampling frequency.
+     * @return Filtered signal and impulse response of filter.
+     */
+    public static FiltrationDto lowPassIIRFiltration(Signal signal, IIRDesign.Approximation approximation,
+                                                     int order, double cutoffFrequency) {
+        double samplingFrequency = signal.size() / signal.getDurationTime();
+        return iirFiltration(signal, IIRDesign.lowPass(approximation, order, samplingFrequency, cutoffFrequency));
+    }
+
+    /**
+     * High pass filtration using IIR filter (pl. NOI), cascade of biquads.
+     * @param signal Signal object containing discrete set of samples.
+     * @param approximation Butterworth or Chebyshev filter.
+     * @param order Order of filter.
+     * @param cutoffFrequency Cut-off frequency of filter, required smaller than half of sampling frequency.
+     * @return Filtered signal and impulse response of filter.
+     */
+    public static FiltrationDto highPassIIRFiltration(Signal signal, IIRDesign.Approximation approximation,
+                                                      int order, double cutoffFrequency) {
+        double samplingFrequency = signal.size() / signal.getDurationTime();
+        return iirFiltration(signal, IIRDesign.highPass(approximation, order, samplingFrequency, cutoffFrequency));
+    }
+
+    private static FiltrationDto iirFiltration(Signal signal, BiquadCascade filter) {
+        SampleBuffer sampleBuffer = signal.getSampleBuffer();
+        logger.info("IIR sections: %s | samples: %s".formatted(filter.getSectionCount(), sampleBuffer.size()));
+
+        double[] filteredSamples = filter.process(sampleBuffer.values());
+
+        Signal filteredSignal = SignalFactory.createSignal(sampleBuffer.withValues(filteredSamples));
+        filteredSignal.setName("filtered");
+
+        // IIR filter has no finite coefficients, its impulse response is shown instead
+        Signal impulseResponseSignal = SignalFactory.createSignal(
+                SampleBuffer.uniform(0.0, 1.0, filter.impulseResponse(IMPULSE_RESPONSE_LENGTH)));
+        impulseResponseSignal.setName("impulse response");
+
+        return FiltrationDto.builder()
+                .filteredSignal(filteredSignal)
+                .coefficients(impulseResponseSignal)
+                .build();
     }
 
     private static double getHighPassCutoffFrequency(Signal signal, double cutoffFrequency) {
-        double samplingFrequency = signal.getTimestampSamples().size() / signal.getDurationTime();
+        double samplingFrequency = signal.size() / signal.getDurationTime();
         if (cutoffFrequency >= samplingFrequency / 2) {
             throw new IllegalArgumentException("Cut-off frequency must be smaller than half of sampling frequency.");
         }
@@ -423,36 +714,54 @@ public class SignalOperations {
      * @return New signal object containing filtered samples.
      */
     private static FiltrationDto firFiltration(Signal signal, int M, double cutoffFrequency,
-                                               UnaryOperator<List<Double>> coefficientsModifier) {
-        List<Double> timestamps = signal.getTimestamps();
-        List<Double> samples = signal.getSamples();
+                                               FIRDesignCache.PassType passType) {
+        SampleBuffer sampleBuffer = signal.getSampleBuffer();
 
-        double samplingFrequency = timestamps.size() / signal.getDurationTime();
+        double samplingFrequency = sampleBuffer.size() / signal.getDurationTime();
         double K = samplingFrequency / cutoffFrequency;
         logger.info("K: %s | M: %s | fs: %s | fc: %s".formatted(K, M, samplingFrequency, cutoffFrequency));
 
-        List<Double> coefficients = createFIRCoefficients(M, K);
+        // copy of cached design, becomes samples of coefficients signal
+        double[] coefficientsSamples = FIRDesignCache.coefficients(M, K, WindowType.HAMMING, passType);
 
-        List<Double> modifiedCoefficients = coefficientsModifier.apply(coefficients);
+        double[] filteredSamples;
+        if (FastConvolution.isDirectFaster(sampleBuffer.size(), M)) {
+            filteredSamples = new SymmetricFIRKernel(coefficientsSamples).filter(sampleBuffer.values());
+        } else {
+            double[] product = convolve(sampleBuffer.values(), coefficientsSamples);
+            int shift = (M - 1) / 2;
+            filteredSamples = Arrays.copyOfRange(product, shift, shift + sampleBuffer.size());
+        }
 
-        List<Double> product = convolve(samples, modifiedCoefficients);
+        return createFiltrationDto(sampleBuffer, filteredSamples, coefficientsSamples);
+    }
 
-        LinkedHashMap<Double, Double> filteredSamples = new LinkedHashMap<>();
-        int shift = (M - 1) / 2;
-        for (int i = 0; i < timestamps.size(); i++) {
-            filteredSamples.put(timestamps.get(i), product.get(i + shift));
-        }
+    /**
+     * Filtration of signal with bank of FIR filters, in single parallel pass over samples.
+     * Each filter is compensated for its delay, as in {@link #lowPassFIRFiltration(Signal, int, double)}.
+     * @param signal Signal object containing discrete set of samples.
+     * @param coefficientSets Coefficients of each filter, e.g. from {@link FIRDesignCache}.
+     * @return Filtered signal and coefficients of each filter, in order of filters.
+     */
+    public static List<FiltrationDto> firFilterBank(Signal signal, List<double[]> coefficientSets) {
+        SampleBuffer sampleBuffer = signal.getSampleBuffer();
+        logger.info("filters: %s | samples: %s".formatted(coefficientSets.size(), sampleBuffer.size()));
 
-        // coefficients to discrete signal
-        Map<Double, Double> coefficientsSamples = new LinkedHashMap<>();
-        for (int i = 0; i < modifiedCoefficients.size(); i++) {
-            coefficientsSamples.put((double) i, modifiedCoefficients.get(i));
+        double[][] filteredSamples = new FilterBank(coefficientSets).filter(sampleBuffer.values());
+
+        List<FiltrationDto> result = new ArrayList<>();
+        for (int f = 0; f < filteredSamples.length; f++) {
+            result.add(createFiltrationDto(sampleBuffer, filteredSamples[f], coefficientSets.get(f).clone()));
         }
+        return result;
+    }
 
-        Signal filteredSignal = SignalFactory.createSignal(filteredSamples);
+    private static FiltrationDto createFiltrationDto(SampleBuffer sampleBuffer, double[] filteredSamples,
+                                                     double[] coefficientsSamples) {
+        Signal filteredSignal = SignalFactory.createSignal(sampleBuffer.withValues(filteredSamples));
         filteredSignal.setName("filtered");
 
-        Signal coefficientsSignal = SignalFactory.createSignal(coefficientsSamples);
+        Signal coefficientsSignal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, 1.0, coefficientsSamples));
         coefficientsSignal.setName("coefficients");
 
         return FiltrationDto.builder()
@@ -462,44 +771,24 @@ public class SignalOperations {
     }
 
     /**
-     * Creates coefficients for FIR filter. Value of each is product of sinc function and given window.
+     * Creates coefficients for FIR filter. Value of each is product of sinc function and Hamming window.
+     * Window spans M - 1 intervals, so like sinc it is symmetric around (M - 1) / 2 and filter has linear phase.
+     * Design is cached, see {@link FIRDesignCache} for primitive coefficients and other windows.
      * @param M No. of coefficients in FIR.
      * @param K Relation between sampling frequency and cut-off frequency.
      * @return List of coefficients.
      */
     public static List<Double> createFIRCoefficients(int M, double K) {
-        List<Double> coefficients = new ArrayList<>();
-        for (int i = 0; i < M; i++) {
-            double value = coefficient(i, M, K) * hammingWindow(i, M);
-            coefficients.add(value);
-        }
-        return coefficients;
-    }
-
-    /**
-     * Helper method to calculate coefficient at given index.
-     * @param n No. of current sample.
-     * @param M No. of coefficients in FIR.
-     * @param K Relation between sampling frequency and cut-off frequency.
-     * @return FIR coefficient at index n.
-     */
-    private static double coefficient(int n, int M, double K) {
-        double state = (M - 1) / 2.0;
-        double omega = 2 * Math.PI / K;
-
-        if (n == state) {
-            return 2 / K;
-        }
-
-        double numerator = Math.sin(omega * (n - state));
-        double denominator = Math.PI * (n - state);
-        return numerator / denominator;
+        double[] coefficients = FIRDesignCache.coefficients(M, K, WindowType.HAMMING, FIRDesignCache.PassType.LOW_PASS);
+        return DoubleStream.of(coefficients).boxed().collect(Collectors.toCollection(ArrayList::new));
     }
 
     /**
-     * Implementation of Hamming window. Calculates value at given index.
+     * Implementation of Hamming window. Calculates value at given index. Window is periodic with period M,
+     * as used for spectral frames in ShortTimeFourierTransform and WelchEstimator. Window symmetric over M
+     * coefficients of FIR, as in createFIRCoefficients, is obtained with period M - 1.
      * @param n No. of current sample
-     * @param M No. of coefficients in FIR
+     * @param M Period of window, in samples
      * @return Value of Hamming window.
      */
     public static double hammingWindow(int n, int M) {
@@ -0,0 +1,57 @@
+package cps.model;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Magnitudes of short-time spectra, stored frame after frame in single array.
+ */
+@Getter
+public class Spectrogram {
+    private final int frameCount;
+    private final int binCount;
+    private final double[] magnitudes;
+    // time between starts of consecutive frames and frequency between consecutive bins
+    private final double timeStep;
+    private final double frequencyStep;
+
+    public Spectrogram(int frameCount, int binCount, double[] magnitudes, double timeStep, double frequencyStep) {
+        if (magnitudes.length != frameCount * binCount) {
+            throw new IllegalArgumentException("Magnitudes do not match " + frameCount + " frames of " + binCount + " bins");
+        }
+        this.frameCount = frameCount;
+        this.binCount = binCount;
+        this.magnitudes = magnitudes;
+        this.timeStep = timeStep;
+        this.frequencyStep = frequencyStep;
+    }
+
+    public double getMagnitude(int frame, int bin) {
+        return magnitudes[frame * binCount + bin];
+    }
+
+    /**
+     * @param frame No. of frame.
+     * @return Copy of magnitudes of given frame.
+     */
+    public double[] getFrame(int frame) {
+        int from = frame * binCount;
+        return Arrays.copyOfRange(magnitudes, from, from + binCount);
+    }
+
+    /**
+     * @param frame No. of frame.
+     * @return Bin of highest magnitude in given frame.
+     */
+    public int peakBin(int frame) {
+        int from = frame * binCount;
+        int peak = 0;
+        for (int k = 1; k < binCount; k++) {
+            if (magnitudes[from + k] > magnitudes[from + peak]) {
+                peak = k;
+            }
+        }
+        return peak;
+    }
+}
@@ -1,155 +1,174 @@
 package cps.model;
 
+import cps.model.signals.SampleBuffer;
+import cps.model.signals.Signal;
+import cps.model.statistics.Histogram;
+import cps.model.statistics.QualityMeasures;
+import cps.model.statistics.QuantileSketch;
+import cps.model.statistics.RollingStatistics;
+import cps.model.statistics.StatisticsAccumulator;
+
 import java.util.*;
-import java.util.logging.Logger;
 
 public class StatisticTool {
-    private static final Logger logger = Logger.getLogger(StatisticTool.class.getName());
-    private static final String MISSING_BASE_SAMPLE = "missing base sample";
-
     private StatisticTool() {}
 
     public static Map<String, Double> getStatistics(Map<Double, Double> samples) {
+        return getStatistics(samples.values().stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    public static Map<String, Double> getStatistics(double[] samples) {
+        if (samples.length == 0) {
+            throw new IllegalArgumentException("empty sample list");
+        }
+
+        StatisticsAccumulator accumulator = StatisticsAccumulator.of(samples);
+
         Map<String, Double> stats = new HashMap<>();
-        stats.put("mean", StatisticTool.getMean(samples.values().stream().toList()));
-        stats.put("absMean", StatisticTool.getAbsoluteMean(samples.values().stream().toList()));
-        stats.put("avgPower", StatisticTool.getAveragePower(samples.values().stream().toList()));
-        stats.put("variance", StatisticTool.getVariance(samples.values().stream().toList()));
-        stats.put("rms", StatisticTool.getRMS(samples.values().stream().toList()));
+        stats.put("mean", accumulator.getMean());
+        stats.put("absMean", accumulator.getAbsoluteMean());
+        stats.put("avgPower", accumulator.getAveragePower());
+        stats.put("variance", accumulator.getVariance());
+        stats.put("rms", accumulator.getRMS());
         return stats;
     }
 
+    /**
+     * Approximates percentiles of samples with quantile sketch, see {@link QuantileSketch} for error bounds.
+     * @param samples Discrete samples.
+     * @return Minimum, percentiles p1, p5, p25, p50, p75, p95 and p99, and maximum, in ascending order.
+     */
+    public static Map<String, Double> getQuantiles(double[] samples) {
+        if (samples.length == 0) {
+            throw new IllegalArgumentException("empty sample list");
+        }
+
+        QuantileSketch sketch = QuantileSketch.of(samples);
+
+        Map<String, Double> quantiles = new LinkedHashMap<>();
+        quantiles.put("min", sketch.getMin());
+        for (int percent : new int[]{1, 5, 25, 50, 75, 95, 99}) {
+            quantiles.put("p" + percent, sketch.quantile(percent / 100.0));
+        }
+        quantiles.put("max", sketch.getMax());
+        return quantiles;
+    }
+
     public static Map<String, Double> getMeasures(Map<Double, Double> baseSamples, Map<Double, Double> samples) {
+        return getMeasures(SampleBuffer.of(baseSamples), SampleBuffer.of(samples));
+    }
+
+    public static Map<String, Double> getMeasures(SampleBuffer baseSamples, SampleBuffer samples) {
+        QualityMeasures quality = QualityMeasures.of(baseSamples, samples);
+
         Map<String, Double> measures = new HashMap<>();
-        measures.put("MSE", StatisticTool.getMSE(baseSamples, samples));
-        measures.put("SNR", StatisticTool.getSNR(baseSamples, samples));
-        measures.put("PSNR", StatisticTool.getPSNR(baseSamples, samples));
-        measures.put("ENOB", StatisticTool.getENOB(baseSamples, samples));
-        measures.put("MD", StatisticTool.getMD(baseSamples, samples));
+        measures.put("MSE", quality.getMSE());
+        measures.put("SNR", quality.getSNR());
+        measures.put("PSNR", quality.getPSNR());
+        measures.put("ENOB", quality.getENOB());
+        measures.put("MD", quality.getMD());
         return measures;
     }
 
-
     public static Map<String, Integer> createHistogramData(int numBins, List<Double> samples) {
-        if (samples.isEmpty()) return new HashMap<>();
-
-        double min = samples.stream().min(Double::compare).orElse(0.0);
-        double max = samples.stream().max(Double::compare).orElse(0.0);
+        return createHistogramData(numBins, samples.stream().mapToDouble(Double::doubleValue).toArray());
+    }
 
-        max += 0.000001;
+    public static Map<String, Integer> createHistogramData(int numBins, double[] samples) {
+        if (samples.length == 0) return new HashMap<>();
 
-        double binWidth = (max - min) / numBins;
+        Histogram histogram = Histogram.of(samples, numBins);
 
+        // bins narrower than label precision share label, as they did when counted by label
         Map<String, Integer> histogramData = new LinkedHashMap<>();
-
-        for (int i = 0; i < numBins; i++) {
-            double lowerBound = min + i * binWidth;
-            double upperBound = min + (i + 1) * binWidth;
-            String binLabel = String.format("%.2f - %.2f", lowerBound, upperBound);
-            histogramData.put(binLabel, 0);
+        for (int bin = 0; bin < histogram.getBinCount(); bin++) {
+            histogramData.merge(histogram.label(bin), (int) histogram.getCount(bin), Integer::sum);
         }
-
-        for (Double sample : samples) {
-            int binIndex = (int)Math.floor((sample - min) / binWidth);
-            // Upewnij się, że wartość maksymalna trafia do ostatniego przedziału
-            if (binIndex == numBins) binIndex--;
-
-            String binLabel = String.format("%.2f - %.2f",
-                    min + binIndex * binWidth,
-                    min + (binIndex + 1) * binWidth);
-
-            histogramData.put(binLabel, histogramData.getOrDefault(binLabel, 0) + 1);
-        }
-
         return histogramData;
     }
 
+    /**
+     * Computes statistic over sliding window ending at each sample of signal.
+     * @param signal Signal object containing discrete set of samples.
+     * @param windowSize No. of samples in window.
+     * @param measure Computed statistic.
+     * @return Signal of statistics with the same timestamps as given signal.
+     */
+    public static Signal getRollingStatistic(Signal signal, int windowSize, RollingStatistics.Measure measure) {
+        SampleBuffer sampleBuffer = signal.getSampleBuffer();
+        double[] values = RollingStatistics.compute(sampleBuffer.values(), windowSize, measure);
+
+        Signal rollingSignal = SignalFactory.createSignal(sampleBuffer.withValues(values));
+        rollingSignal.setName("rolling " + measure.name().toLowerCase());
+        return rollingSignal;
+    }
+
     /* ------------ GENERAL ------------ */
 
     public static double getSquaredSum(List<Double> samples) {
-        return samples.stream().mapToDouble(sample -> sample * sample).sum();
+        return accumulate(samples).getSquaredSum();
     }
 
     public static double getMean(List<Double> samples) {
         if (samples.isEmpty()) {
             throw new IllegalArgumentException("empty sample list");
         }
-
-        return samples.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+        return accumulate(samples).getMean();
     }
 
     public static double getAbsoluteMean(List<Double> samples) {
         if (samples.isEmpty()) {
             throw new IllegalArgumentException("empty sample list");
         }
-        return samples.stream().mapToDouble(Math::abs).average().orElse(0.0);
+        return accumulate(samples).getAbsoluteMean();
     }
 
     public static double getAveragePower(List<Double> samples) {
-        return samples.stream().mapToDouble(sample -> sample * sample).average().orElse(0.0);
+        return accumulate(samples).getAveragePower();
     }
 
     public static double getVariance(List<Double> samples) {
-        double mean = getMean(samples);
-
-        return samples.stream().mapToDouble(sample -> sample - mean).map(sample -> sample * sample).average().orElse(0.0);
+        if (samples.isEmpty()) {
+            throw new IllegalArgumentException("empty sample list");
+        }
+        return accumulate(samples).getVariance();
     }
 
     public static double getRMS(List<Double> samples) {
-        return Math.sqrt(getAveragePower(samples));
+        return accumulate(samples).getRMS();
+    }
+
+    private static StatisticsAccumulator accumulate(List<Double> samples) {
+        StatisticsAccumulator accumulator = new StatisticsAccumulator();
+        for (double sample : samples) {
+            accumulator.accept(sample);
+        }
+        return accumulator;
     }
 
     /* ------------ SIGNAL SPECIFIC ------------ */
 
     public static double getMSE(Map<Double, Double> baseSamples, Map<Double, Double> samples) {
-        double sum = 0;
-        for (Map.Entry<Double, Double> sample : samples.entrySet()) {
-            if (!baseSamples.containsKey(sample.getKey())) {
-                logger.warning(MISSING_BASE_SAMPLE);
-                continue;
-            }
-            sum += Math.pow(sample.getValue() - baseSamples.get(sample.getKey()), 2);
-        }
-        return Math.sqrt(sum / samples.size());
+        return measure(baseSamples, samples).getMSE();
     }
 
     public static double getSNR(Map<Double, Double> baseSamples, Map<Double, Double> samples) {
-        double upperSum = 0;
-        double lowerSum = 0;
-        for (Map.Entry<Double, Double> sample : samples.entrySet()) {
-            if (!baseSamples.containsKey(sample.getKey())) {
-                logger.warning(MISSING_BASE_SAMPLE);
-                continue;
-            }
-            upperSum += Math.pow(sample.getValue(), 2);
-            lowerSum += Math.pow(sample.getValue() - baseSamples.get(sample.getKey()), 2);
-        }
-
-        if (lowerSum == 0) {
-            logger.warning("lower sum is zero");
-            return Double.POSITIVE_INFINITY;
-        }
-
-        return 10 * Math.log10(upperSum / lowerSum);
+        return measure(baseSamples, samples).getSNR();
     }
 
     public static double getPSNR(Map<Double, Double> baseSamples, Map<Double, Double> samples) {
-        return 10 * Math.log10(Collections.max(samples.values()) / StatisticTool.getMSE(baseSamples, samples));
+        return measure(baseSamples, samples).getPSNR();
     }
 
     public static double getENOB(Map<Double, Double> baseSamples, Map<Double, Double> samples) {
-        return (StatisticTool.getSNR(baseSamples, samples) - 1.76) / 6.02;
+        return measure(baseSamples, samples).getENOB();
     }
 
     public static double getMD(Map<Double, Double> baseSamples, Map<Double, Double> samples) {
-        List<Double> differences = new ArrayList<>();
-        for (Map.Entry<Double, Double> sample : samples.entrySet()) {
-            if (!baseSamples.containsKey(sample.getKey())) {
-                logger.warning(MISSING_BASE_SAMPLE);
-                continue;
-            }
-            differences.add(Math.abs(sample.getValue() - baseSamples.get(sample.getKey())));
-        }
-        return Collections.max(differences);
+        return measure(baseSamples, samples).getMD();
+    }
+
+    private static QualityMeasures measure(Map<Double, Double> baseSamples, Map<Double, Double> samples) {
+        return QualityMeasures.of(SampleBuffer.of(baseSamples), SampleBuffer.of(samples));
     }
 }
@@ -0,0 +1,158 @@
+package cps.model;
+
+import cps.model.signals.SampleBuffer;
+import cps.model.signals.Signal;
+import cps.model.transform.FourierPlanCache;
+import cps.model.transform.GeneralFourierPlan;
+import cps.model.transform.RealFourierTransform;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Power spectral density estimated with Welch's method. Signal is cut into overlapping segments multiplied
+ * by Hamming window, periodograms of segments are computed with FFT and averaged. Segments are split into
+ * a bounded no. of parallel tasks, each summing periodograms into its own primitive accumulator,
+ * so memory does not grow with length of signal. Only full segments are used: last samples not filling
+ * a segment, fewer than hop, are left out rather than zero-padded, which would understate their power.
+ */
+public class WelchEstimator {
+    // parallel tasks per thread of common pool, to balance uneven tasks
+    private static final int TASKS_PER_THREAD = 4;
+
+    @Getter
+    private final int segmentSize;
+    @Getter
+    private final int hop;
+    private final double[] window;
+    // sum of squared window values, power lost to windowing
+    private final double windowPower;
+
+    /**
+     * @param segmentSize No. of samples in single segment, at least 2.
+     * @param hop No. of samples between starts of consecutive segments.
+     */
+    public WelchEstimator(int segmentSize, int hop) {
+        if (segmentSize < 2) {
+            throw new IllegalArgumentException("Segment size must be at least 2");
+        }
+        if (hop < 1) {
+            throw new IllegalArgumentException("Hop must be positive");
+        }
+        this.segmentSize = segmentSize;
+        this.hop = hop;
+        this.window = new double[segmentSize];
+        double power = 0.0;
+        for (int n = 0; n < segmentSize; n++) {
+            window[n] = SignalOperations.hammingWindow(n, segmentSize);
+            power += window[n] * window[n];
+        }
+        this.windowPower = power;
+    }
+
+    /**
+     * Creates estimator with segments overlapping by half.
+     * @param segmentSize No. of samples in single segment, at least 2.
+     * @return New estimator.
+     */
+    public static WelchEstimator halfOverlap(int segmentSize) {
+        return new WelchEstimator(segmentSize, Math.max(1, segmentSize / 2));
+    }
+
+    /**
+     * @return No. of frequency bins, segmentSize/2 + 1.
+     */
+    public int binCount() {
+        return segmentSize / 2 + 1;
+    }
+
+    /**
+     * @param samplesCount No. of samples.
+     * @return No. of full segments fitting in given samples, trailing samples past the last one being dropped.
+     */
+    public int segmentCount(int samplesCount) {
+        return samplesCount < segmentSize ? 0 : 1 + (samplesCount - segmentSize) / hop;
+    }
+
+    /**
+     * Estimates one-sided power spectral density, so that its sum times frequency step equals mean power of samples.
+     * @param samples Discrete samples, at least segment size.
+     * @param samplingFrequency Sampling frequency of samples.
+     * @return Density at bins 0..segmentSize/2, spaced by samplingFrequency / segmentSize.
+     */
+    public double[] estimate(double[] samples, double samplingFrequency) {
+        int segments = segmentCount(samples.length);
+        if (segments == 0) {
+            throw new IllegalArgumentException("Signal shorter than segment: " + segmentSize);
+        }
+
+        int tasks = Math.min(segments, TASKS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism());
+        double[] psd = IntStream.range(0, tasks).parallel()
+                .mapToObj(task -> accumulate(samples, (int) ((long) segments * task / tasks),
+                        (int) ((long) segments * (task + 1) / tasks)))
+                .reduce(WelchEstimator::add)
+                .orElseThrow();
+
+        double scale = 1.0 / (segments * samplingFrequency * windowPower);
+        for (int k = 0; k < psd.length; k++) {
+            // power of negative frequencies is folded onto positive ones
+            boolean folded = k != 0 && !(segmentSize % 2 == 0 && k == segmentSize / 2);
+            psd[k] *= folded ? 2 * scale : scale;
+        }
+        return psd;
+    }
+
+    /**
+     * Estimates power spectral density of signal.
+     * @param signal Signal object containing discrete set of samples.
+     * @return Frequency-domain signal of density, starting at 0 Hz.
+     */
+    public Signal estimate(Signal signal) {
+        double samplingFrequency = 1 / signal.getTimeStep();
+        double[] psd = estimate(signal.getSampleBuffer().values(), samplingFrequency);
+
+        Signal psdSignal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, samplingFrequency / segmentSize, psd));
+        psdSignal.setName("psd");
+        return psdSignal;
+    }
+
+    /**
+     * Sums squared magnitudes of spectra of segments [from, to).
+     */
+    private double[] accumulate(double[] samples, int from, int to) {
+        int bins = binCount();
+        double[] sum = new double[bins];
+        double[] frame = new double[segmentSize];
+        boolean powerOfTwo = (segmentSize & (segmentSize - 1)) == 0;
+        GeneralFourierPlan plan = powerOfTwo ? null : FourierPlanCache.forLength(segmentSize);
+        double[] re = new double[powerOfTwo ? bins : segmentSize];
+        double[] im = new double[re.length];
+
+        for (int segment = from; segment < to; segment++) {
+            int offset = segment * hop;
+            for (int n = 0; n < segmentSize; n++) {
+                frame[n] = samples[offset + n] * window[n];
+            }
+            if (powerOfTwo) {
+                RealFourierTransform.forward(frame, re, im);
+            } else {
+                System.arraycopy(frame, 0, re, 0, segmentSize);
+                Arrays.fill(im, 0.0);
+                plan.forward(re, im);
+            }
+            for (int k = 0; k < bins; k++) {
+                sum[k] += re[k] * re[k] + im[k] * im[k];
+            }
+        }
+        return sum;
+    }
+
+    private static double[] add(double[] sum, double[] other) {
+        for (int k = 0; k < sum.length; k++) {
+            sum[k] += other[k];
+        }
+        return sum;
+    }
+}
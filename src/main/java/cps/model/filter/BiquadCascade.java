@@ -0,0 +1,125 @@
+package cps.model.filter;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * IIR filter as cascade of second order sections (biquads), each computed in transposed direct form II:
+ * y = b0 * x + z1, z1 = b1 * x - a1 * y + z2, z2 = b2 * x - a2 * y.
+ * State of sections is kept between calls, so samples may be filtered block by block.
+ * Single instance must not be shared between threads.
+ */
+public class BiquadCascade {
+    // b0, b1, b2, a1, a2 of each section, a0 being 1
+    private static final int SECTION_LENGTH = 5;
+
+    @Getter
+    private final int sectionCount;
+    private final double[] coefficients;
+    // z1, z2 of each section
+    private final double[] state;
+
+    /**
+     * @param coefficients Coefficients b0, b1, b2, a1, a2 of each section one after another, normalized by a0.
+     */
+    public BiquadCascade(double[] coefficients) {
+        if (coefficients.length == 0 || coefficients.length % SECTION_LENGTH != 0) {
+            throw new IllegalArgumentException("Coefficients must hold b0, b1, b2, a1, a2 of each section");
+        }
+        this.coefficients = coefficients.clone();
+        this.sectionCount = coefficients.length / SECTION_LENGTH;
+        this.state = new double[2 * sectionCount];
+    }
+
+    /**
+     * Filters samples in range, continuing from state left by previous call.
+     * @param samples Input samples.
+     * @param from Index of first sample, inclusive.
+     * @param to Index of last sample, exclusive.
+     * @param output Array for filtered samples, may be the same as samples.
+     * @param offset Index of first filtered sample in output.
+     */
+    public void process(double[] samples, int from, int to, double[] output, int offset) {
+        if (output != samples || offset != from) {
+            System.arraycopy(samples, from, output, offset, to - from);
+        }
+        // section by section over whole block, so that coefficients and state stay in registers
+        for (int s = 0; s < sectionCount; s++) {
+            int c = s * SECTION_LENGTH;
+            double b0 = coefficients[c];
+            double b1 = coefficients[c + 1];
+            double b2 = coefficients[c + 2];
+            double a1 = coefficients[c + 3];
+            double a2 = coefficients[c + 4];
+            double z1 = state[2 * s];
+            double z2 = state[2 * s + 1];
+
+            for (int n = offset; n < offset + to - from; n++) {
+                double x = output[n];
+                double y = b0 * x + z1;
+                z1 = b1 * x - a1 * y + z2;
+                z2 = b2 * x - a2 * y;
+                output[n] = y;
+            }
+
+            state[2 * s] = z1;
+            state[2 * s + 1] = z2;
+        }
+    }
+
+    /**
+     * Filters next block of samples.
+     * @param samples Input samples.
+     * @return New array of filtered samples.
+     */
+    public double[] process(double[] samples) {
+        double[] output = new double[samples.length];
+        process(samples, 0, samples.length, output, 0);
+        return output;
+    }
+
+    /**
+     * Clears state, as if no samples were filtered.
+     */
+    public void reset() {
+        Arrays.fill(state, 0.0);
+    }
+
+    /**
+     * @param length No. of samples.
+     * @return First samples of impulse response, computed from zero state without changing current one.
+     */
+    public double[] impulseResponse(int length) {
+        BiquadCascade copy = new BiquadCascade(coefficients);
+        double[] impulse = new double[length];
+        if (length > 0) {
+            impulse[0] = 1.0;
+        }
+        copy.process(impulse, 0, length, impulse, 0);
+        return impulse;
+    }
+
+    /**
+     * @param frequency Normalized frequency, f / fs.
+     * @return Magnitude of frequency response.
+     */
+    public double magnitudeResponse(double frequency) {
+        double omega = 2 * Math.PI * frequency;
+        double cos1 = Math.cos(omega);
+        double sin1 = -Math.sin(omega);
+        double cos2 = Math.cos(2 * omega);
+        double sin2 = -Math.sin(2 * omega);
+
+        double magnitude = 1.0;
+        for (int s = 0; s < sectionCount; s++) {
+            int c = s * SECTION_LENGTH;
+            double numRe = coefficients[c] + coefficients[c + 1] * cos1 + coefficients[c + 2] * cos2;
+            double numIm = coefficients[c + 1] * sin1 + coefficients[c + 2] * sin2;
+            double denRe = 1.0 + coefficients[c + 3] * cos1 + coefficients[c + 4] * cos2;
+            double denIm = coefficients[c + 3] * sin1 + coefficients[c + 4] * sin2;
+            magnitude *= Math.hypot(numRe, numIm) / Math.hypot(denRe, denIm);
+        }
+        return magnitude;
+    }
+}
@@ -0,0 +1,90 @@
+package cps.model.filter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, thread-safe cache of FIR filters designed as windowed sinc, keyed by (M, K, window, pass type).
+ * High pass filter is low pass one with coefficients multiplied by (-1)^n. Least recently used design is dropped first.
+ */
+public final class FIRDesignCache {
+    private static final int MAX_DESIGNS = 32;
+
+    public enum PassType {
+        LOW_PASS,
+        HIGH_PASS
+    }
+
+    private record Key(int M, double K, WindowType window, PassType passType) {
+    }
+
+    private static final Map<Key, double[]> designs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, double[]> eldest) {
+            return size() > MAX_DESIGNS;
+        }
+    };
+
+    private FIRDesignCache() {
+    }
+
+    /**
+     * Returns coefficients of cached design or designs a new filter.
+     * @param M No. of coefficients in FIR.
+     * @param K Relation between sampling frequency and cut-off frequency.
+     * @param window Window multiplying sinc function.
+     * @param passType Low or high pass filter.
+     * @return New array with copy of coefficients, cached design stays unchanged.
+     */
+    public static double[] coefficients(int M, double K, WindowType window, PassType passType) {
+        return design(M, K, window, passType).clone();
+    }
+
+    /**
+     * @return Shared array of cached coefficients, which must not be modified.
+     */
+    static synchronized double[] design(int M, double K, WindowType window, PassType passType) {
+        if (M < 1) {
+            throw new IllegalArgumentException("No. of coefficients must be positive");
+        }
+        return designs.computeIfAbsent(new Key(M, K, window, passType), key -> create(M, K, window, passType));
+    }
+
+    public static synchronized void clear() {
+        designs.clear();
+    }
+
+    private static double[] create(int M, double K, WindowType window, PassType passType) {
+        double[] windowTable = WindowTables.get(window, M);
+        double[] coefficients = new double[M];
+        for (int n = 0; n < M; n++) {
+            coefficients[n] = sinc(n, M, K) * windowTable[n];
+        }
+        if (passType == PassType.HIGH_PASS) {
+            for (int n = 1; n < M; n += 2) {
+                coefficients[n] = -coefficients[n];
+            }
+        }
+        return coefficients;
+    }
+
+    /**
+     * Ideal low pass response at given index, shifted to middle of filter.
+     * @param n No. of current sample.
+     * @param M No. of coefficients in FIR.
+     * @param K Relation between sampling frequency and cut-off frequency.
+     * @return FIR coefficient at index n.
+     */
+    private static double sinc(int n, int M, double K) {
+        double state = (M - 1) / 2.0;
+        double omega = 2 * Math.PI / K;
+
+        if (n == state) {
+            return 2 / K;
+        }
+
+        double numerator = Math.sin(omega * (n - state));
+        double denominator = Math.PI * (n - state);
+        return numerator / denominator;
+    }
+}
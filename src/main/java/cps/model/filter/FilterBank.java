@@ -0,0 +1,96 @@
+package cps.model.filter;
+
+import cps.model.transform.FastConvolution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Bank of FIR filters applied to one signal. Input is padded once and split into chunks processed in parallel;
+ * within each chunk all direct filters run block after block, so block of input stays in cache for every filter.
+ * Filters long enough for FFT to be faster are convolved separately with FFT.
+ * Outputs are compensated for delay of (M - 1) / 2 samples, as in FIR filtration of {@code SignalOperations}.
+ */
+public class FilterBank {
+    // outputs of single block, computed by all filters before next block
+    private static final int BLOCK_SIZE = 4096;
+    // outputs of single parallel task
+    private static final int CHUNK_SIZE = 16 * BLOCK_SIZE;
+
+    private final List<double[]> coefficientSets;
+    private final List<SymmetricFIRKernel> kernels;
+
+    /**
+     * @param coefficientSets Coefficients of each filter.
+     */
+    public FilterBank(List<double[]> coefficientSets) {
+        if (coefficientSets.isEmpty()) {
+            throw new IllegalArgumentException("Empty filter bank");
+        }
+        this.coefficientSets = new ArrayList<>();
+        this.kernels = new ArrayList<>();
+        for (double[] coefficients : coefficientSets) {
+            SymmetricFIRKernel kernel = new SymmetricFIRKernel(coefficients);
+            this.coefficientSets.add(coefficients.clone());
+            this.kernels.add(kernel);
+        }
+    }
+
+    public int size() {
+        return kernels.size();
+    }
+
+    /**
+     * Filters samples with every filter of bank.
+     * @param samples Samples to filter.
+     * @return Filtered samples of each filter, in order of filters, as many as given samples.
+     */
+    public double[][] filter(double[] samples) {
+        int N = samples.length;
+        double[][] outputs = new double[size()][];
+
+        List<Integer> direct = new ArrayList<>();
+        List<Integer> fft = new ArrayList<>();
+        int padding = 0;
+        for (int f = 0; f < size(); f++) {
+            int M = kernels.get(f).getLength();
+            if (FastConvolution.isDirectFaster(N, M)) {
+                direct.add(f);
+                padding = Math.max(padding, M - 1);
+            } else {
+                fft.add(f);
+            }
+        }
+
+        fft.parallelStream().forEach(f -> {
+            double[] coefficients = coefficientSets.get(f);
+            int shift = (coefficients.length - 1) / 2;
+            double[] product = FastConvolution.convolve(samples, coefficients);
+            outputs[f] = Arrays.copyOfRange(product, shift, shift + N);
+        });
+
+        if (!direct.isEmpty()) {
+            double[] padded = SymmetricFIRKernel.pad(samples, padding);
+            for (int f : direct) {
+                outputs[f] = new double[N];
+            }
+
+            int chunks = (N + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            int totalPadding = padding;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int chunkEnd = Math.min(N, (chunk + 1) * CHUNK_SIZE);
+                for (int from = chunk * CHUNK_SIZE; from < chunkEnd; from += BLOCK_SIZE) {
+                    int to = Math.min(chunkEnd, from + BLOCK_SIZE);
+                    for (int f : direct) {
+                        SymmetricFIRKernel kernel = kernels.get(f);
+                        int shift = (kernel.getLength() - 1) / 2;
+                        kernel.filterBlock(padded, totalPadding, outputs[f], shift, from, to);
+                    }
+                }
+            });
+        }
+        return outputs;
+    }
+}
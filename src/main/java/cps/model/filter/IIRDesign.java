@@ -0,0 +1,125 @@
+package cps.model.filter;
+
+/**
+ * Design of IIR low and high pass filters from analog prototypes. Poles of Butterworth or Chebyshev (type I) prototype
+ * are scaled to pre-warped cut-off frequency, mapped with bilinear transform and paired into biquads.
+ * Odd order adds single first order section.
+ */
+public final class IIRDesign {
+
+    public enum Approximation {
+        /** Maximally flat pass band. */
+        BUTTERWORTH,
+        /** Equiripple pass band, with steeper transition than Butterworth filter of the same order. */
+        CHEBYSHEV
+    }
+
+    public static final double DEFAULT_RIPPLE_DB = 1.0;
+    public static final int MAX_ORDER = 32;
+
+    private IIRDesign() {
+    }
+
+    /**
+     * @param approximation Type of analog prototype.
+     * @param order Order of filter, no. of poles.
+     * @param samplingFrequency Sampling frequency.
+     * @param cutoffFrequency Cut-off frequency, smaller than half of sampling frequency. For Chebyshev filter
+     *                        it is edge of pass band, where ripple ends.
+     * @return New low pass filter.
+     */
+    public static BiquadCascade lowPass(Approximation approximation, int order, double samplingFrequency, double cutoffFrequency) {
+        return design(approximation, order, samplingFrequency, cutoffFrequency, false);
+    }
+
+    /**
+     * @param approximation Type of analog prototype.
+     * @param order Order of filter, no. of poles.
+     * @param samplingFrequency Sampling frequency.
+     * @param cutoffFrequency Cut-off frequency, smaller than half of sampling frequency.
+     * @return New high pass filter.
+     */
+    public static BiquadCascade highPass(Approximation approximation, int order, double samplingFrequency, double cutoffFrequency) {
+        return design(approximation, order, samplingFrequency, cutoffFrequency, true);
+    }
+
+    private static BiquadCascade design(Approximation approximation, int order, double fs, double fc, boolean highPass) {
+        if (order < 1 || order > MAX_ORDER) {
+            throw new IllegalArgumentException("Order must be between 1 and " + MAX_ORDER);
+        }
+        if (fc <= 0 || fc >= fs / 2) {
+            throw new IllegalArgumentException("Cut-off frequency must be smaller than half of sampling frequency.");
+        }
+
+        // pre-warped analog cut-off, so that bilinear transform maps it exactly to fc
+        double warped = 2 * fs * Math.tan(Math.PI * fc / fs);
+        double epsilon = Math.sqrt(Math.pow(10, DEFAULT_RIPPLE_DB / 10) - 1);
+        double mu = Math.log(1 / epsilon + Math.sqrt(1 / (epsilon * epsilon) + 1)) / order;
+
+        int sections = (order + 1) / 2;
+        double[] coefficients = new double[5 * sections];
+        for (int k = 0; k < sections; k++) {
+            // prototype pole in upper left quarter of plane, conjugate one is implied
+            double theta = Math.PI * (2 * k + 1) / (2 * order);
+            double poleRe;
+            double poleIm;
+            if (approximation == Approximation.BUTTERWORTH) {
+                poleRe = -Math.sin(theta);
+                poleIm = Math.cos(theta);
+            } else {
+                poleRe = -Math.sinh(mu) * Math.sin(theta);
+                poleIm = Math.cosh(mu) * Math.cos(theta);
+            }
+
+            // low pass: s = warped * p, high pass: s = warped / p
+            double sRe;
+            double sIm;
+            if (highPass) {
+                double norm = poleRe * poleRe + poleIm * poleIm;
+                sRe = warped * poleRe / norm;
+                sIm = -warped * poleIm / norm;
+            } else {
+                sRe = warped * poleRe;
+                sIm = warped * poleIm;
+            }
+
+            // bilinear transform z = (2fs + s) / (2fs - s)
+            double numRe = 2 * fs + sRe;
+            double denRe = 2 * fs - sRe;
+            double denNorm = denRe * denRe + sIm * sIm;
+            double zRe = (numRe * denRe - sIm * sIm) / denNorm;
+            double zIm = (sIm * denRe + numRe * sIm) / denNorm;
+
+            int c = 5 * k;
+            // zeros at z = -1 for low pass and z = 1 for high pass
+            double zero = highPass ? -1.0 : 1.0;
+            boolean real = 2 * k + 1 == order;
+            if (real) {
+                double a1 = -zRe;
+                double gain = highPass ? (1 - a1) / 2 : (1 + a1) / 2;
+                coefficients[c] = gain;
+                coefficients[c + 1] = gain * zero;
+                coefficients[c + 3] = a1;
+            } else {
+                double a1 = -2 * zRe;
+                double a2 = zRe * zRe + zIm * zIm;
+                // unit gain at z = 1 for low pass and z = -1 for high pass
+                double gain = highPass ? (1 - a1 + a2) / 4 : (1 + a1 + a2) / 4;
+                coefficients[c] = gain;
+                coefficients[c + 1] = 2 * gain * zero;
+                coefficients[c + 2] = gain;
+                coefficients[c + 3] = a1;
+                coefficients[c + 4] = a2;
+            }
+        }
+
+        // Chebyshev filter of even order starts pass band at bottom of ripple
+        if (approximation == Approximation.CHEBYSHEV && order % 2 == 0) {
+            double scale = 1 / Math.sqrt(1 + epsilon * epsilon);
+            for (int i = 0; i < 3; i++) {
+                coefficients[i] *= scale;
+            }
+        }
+        return new BiquadCascade(coefficients);
+    }
+}
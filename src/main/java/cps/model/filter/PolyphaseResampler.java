@@ -0,0 +1,113 @@
+package cps.model.filter;
+
+import lombok.Getter;
+
+/**
+ * Changes sample rate by rational factor L/M: interpolation by L, anti-aliasing low pass filtration and decimation by M.
+ * Filter is windowed sinc of {@link FIRDesignCache} with Hamming window, split into L phases,
+ * so only kept output samples are computed and inserted zeros are never multiplied.
+ * Output is compensated for delay of filter, so it stays aligned in time with input.
+ */
+public class PolyphaseResampler {
+    public static final int DEFAULT_TAPS_PER_PHASE = 24;
+
+    @Getter
+    private final int interpolation;
+    @Getter
+    private final int decimation;
+    // phases[p][j] = h[j * L + p]
+    private final double[][] phases;
+    private final int delay;
+
+    /**
+     * @param interpolation Interpolation factor L.
+     * @param decimation Decimation factor M.
+     * @param tapsPerPhase No. of coefficients of each phase when L >= M, filter has max(L, M) times more.
+     */
+    public PolyphaseResampler(int interpolation, int decimation, int tapsPerPhase) {
+        if (interpolation < 1 || decimation < 1) {
+            throw new IllegalArgumentException("Resampling factors must be positive");
+        }
+        if (tapsPerPhase < 1) {
+            throw new IllegalArgumentException("No. of taps must be positive");
+        }
+        int gcd = gcd(interpolation, decimation);
+        this.interpolation = interpolation / gcd;
+        this.decimation = decimation / gcd;
+
+        int L = this.interpolation;
+        // cut-off narrows with max(L, M), so length grows with it to keep passband flat;
+        // odd length, so that delay of filter is whole number of samples
+        int taps = tapsPerPhase * Math.max(L, this.decimation);
+        if (taps % 2 == 0) {
+            taps--;
+        }
+        // cut-off at lower of Nyquist frequencies, at sampling rate L times higher than input
+        double K = 2.0 * Math.max(L, this.decimation);
+        double[] coefficients = FIRDesignCache.design(taps, K, WindowType.HAMMING, FIRDesignCache.PassType.LOW_PASS);
+
+        // gain L restores energy of samples spread by interpolation
+        this.phases = new double[L][(taps + L - 1) / L];
+        for (int k = 0; k < taps; k++) {
+            phases[k % L][k / L] = coefficients[k] * L;
+        }
+        this.delay = (taps - 1) / 2;
+    }
+
+    public PolyphaseResampler(int interpolation, int decimation) {
+        this(interpolation, decimation, DEFAULT_TAPS_PER_PHASE);
+    }
+
+    public static double[] decimate(double[] samples, int factor) {
+        return new PolyphaseResampler(1, factor).resample(samples);
+    }
+
+    public static double[] interpolate(double[] samples, int factor) {
+        return new PolyphaseResampler(factor, 1).resample(samples);
+    }
+
+    /**
+     * @param samplesCount No. of input samples.
+     * @return No. of output samples, ceil(samplesCount * L / M).
+     */
+    public int outputSize(int samplesCount) {
+        return (int) (((long) samplesCount * interpolation + decimation - 1) / decimation);
+    }
+
+    /**
+     * Resamples given samples. Output sample m lies at time of input sample m * M / L.
+     * @param samples Input samples.
+     * @return Resampled samples.
+     */
+    public double[] resample(double[] samples) {
+        int L = interpolation;
+        int N = samples.length;
+        double[] output = new double[outputSize(N)];
+
+        for (int m = 0; m < output.length; m++) {
+            // position in interpolated sequence, shifted by filter's delay
+            long t = (long) m * decimation + delay;
+            int base = (int) (t / L);
+            double[] phase = phases[(int) (t % L)];
+
+            // y[m] = sum of h[j * L + p] * x[base - j], for x inside samples
+            int first = Math.max(0, base - N + 1);
+            int last = Math.min(phase.length - 1, base);
+            double sum = 0.0;
+            for (int j = first; j <= last; j++) {
+                sum += phase[j] * samples[base - j];
+            }
+            output[m] = sum;
+        }
+        return output;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int temp = a % b;
+            a = b;
+            b = temp;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,190 @@
+package cps.model.filter;
+
+import cps.model.SignalOperations;
+import cps.model.transform.RealFourierTransform;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * FIR filter processing samples block by block, for streams not held in memory at once.
+ * Filtration uses overlap-save: each FFT frame holds last M - 1 samples of previous frame followed by new ones,
+ * is multiplied by spectrum of coefficients computed once, and only samples not affected by circular wrap are emitted.
+ * Memory is bounded by single frame and cost per sample is constant.
+ * Filter keeps state between calls, so single instance must not be shared between threads.
+ */
+public final class StreamingFIRFilter {
+    @Getter
+    private final int coefficientsCount;
+    // samples emitted by single frame
+    @Getter
+    private final int blockSize;
+    private final boolean compensateDelay;
+    private final int delay;
+
+    private final double[] kernelRe;
+    private final double[] kernelIm;
+    private final double[] frame;
+    private final double[] work;
+    private final double[] re;
+    private final double[] im;
+
+    // new samples in current frame, outputs left to drop as delay and samples pushed since reset
+    private int filled;
+    private int skip;
+    private long inputCount;
+
+    /**
+     * @param coefficients Coefficients (impulse response) of filter.
+     * @param compensateDelay Whether first (M - 1) / 2 outputs are dropped and {@link #flush()} completes output,
+     *                        so filtered stream is aligned with input and has the same length, as in
+     *                        {@link SignalOperations#lowPassFIRFiltration}. Otherwise full convolution is emitted.
+     */
+    public StreamingFIRFilter(double[] coefficients, boolean compensateDelay) {
+        if (coefficients.length == 0) {
+            throw new IllegalArgumentException("Empty coefficients");
+        }
+        int M = coefficients.length;
+        this.coefficientsCount = M;
+        this.compensateDelay = compensateDelay;
+        this.delay = compensateDelay ? (M - 1) / 2 : 0;
+
+        int size = frameSize(M);
+        this.blockSize = size - M + 1;
+        int bins = size / 2 + 1;
+
+        this.frame = new double[size];
+        this.work = new double[size];
+        this.re = new double[bins];
+        this.im = new double[bins];
+        this.kernelRe = new double[bins];
+        this.kernelIm = new double[bins];
+        System.arraycopy(coefficients, 0, work, 0, M);
+        RealFourierTransform.forward(work, kernelRe, kernelIm);
+
+        reset();
+    }
+
+    /**
+     * Creates low pass filter with Hamming window, same as {@link SignalOperations#lowPassFIRFiltration}.
+     * @param M No. of coefficients in FIR.
+     * @param samplingFrequency Sampling frequency of stream.
+     * @param cutoffFrequency Cut-off frequency of filter.
+     * @return New filter, aligned with input.
+     */
+    public static StreamingFIRFilter lowPass(int M, double samplingFrequency, double cutoffFrequency) {
+        double K = samplingFrequency / cutoffFrequency;
+        return new StreamingFIRFilter(FIRDesignCache.design(M, K, WindowType.HAMMING, FIRDesignCache.PassType.LOW_PASS), true);
+    }
+
+    /**
+     * Creates high pass filter, low pass one at fs/2 - fc with coefficients multiplied by (-1)^n,
+     * same as {@link SignalOperations#highPassFIRFiltration}.
+     * @param M No. of coefficients in FIR.
+     * @param samplingFrequency Sampling frequency of stream.
+     * @param cutoffFrequency Cut-off frequency of filter, smaller than half of sampling frequency.
+     * @return New filter, aligned with input.
+     */
+    public static StreamingFIRFilter highPass(int M, double samplingFrequency, double cutoffFrequency) {
+        if (cutoffFrequency >= samplingFrequency / 2) {
+            throw new IllegalArgumentException("Cut-off frequency must be smaller than half of sampling frequency.");
+        }
+        double K = samplingFrequency / (samplingFrequency / 2 - cutoffFrequency);
+        return new StreamingFIRFilter(FIRDesignCache.design(M, K, WindowType.HAMMING, FIRDesignCache.PassType.HIGH_PASS), true);
+    }
+
+    /**
+     * Pushes next samples of stream.
+     * @param samples Array with samples.
+     * @param from Index of first sample, inclusive.
+     * @param to Index of last sample, exclusive.
+     * @return Filtered samples completed by given ones, possibly none.
+     */
+    public double[] process(double[] samples, int from, int to) {
+        int M = coefficientsCount;
+        int completed = (filled + to - from) / blockSize * blockSize;
+        int dropped = Math.min(skip, completed);
+        double[] output = new double[completed - dropped];
+        int written = 0;
+
+        int i = from;
+        while (i < to) {
+            int copied = Math.min(blockSize - filled, to - i);
+            System.arraycopy(samples, i, frame, M - 1 + filled, copied);
+            filled += copied;
+            i += copied;
+
+            if (filled == blockSize) {
+                filterFrame();
+                int start = Math.min(skip, blockSize);
+                skip -= start;
+                System.arraycopy(work, M - 1 + start, output, written, blockSize - start);
+                written += blockSize - start;
+            }
+        }
+        inputCount += to - from;
+        return output;
+    }
+
+    public double[] process(double[] samples) {
+        return process(samples, 0, samples.length);
+    }
+
+    /**
+     * Ends stream, emitting outputs of samples still held by filter, and resets filter.
+     * With delay compensation, total output has as many samples as input, otherwise M - 1 more.
+     * @return Remaining filtered samples.
+     */
+    public double[] flush() {
+        int tail = compensateDelay ? delay : coefficientsCount - 1;
+        long expected = inputCount == 0 ? 0 : inputCount + tail - delay;
+        long emitted = Math.max(0, inputCount - filled - delay);
+        int remaining = (int) (expected - emitted);
+
+        double[] output = new double[remaining];
+        int written = 0;
+        double[] zeros = new double[blockSize];
+        while (written < remaining) {
+            double[] block = process(zeros, 0, blockSize - filled);
+            int copied = Math.min(block.length, remaining - written);
+            System.arraycopy(block, 0, output, written, copied);
+            written += copied;
+        }
+        reset();
+        return output;
+    }
+
+    /**
+     * Clears state, as if no samples were pushed.
+     */
+    public void reset() {
+        Arrays.fill(frame, 0.0);
+        filled = 0;
+        skip = delay;
+        inputCount = 0;
+    }
+
+    private void filterFrame() {
+        int M = coefficientsCount;
+        RealFourierTransform.forward(frame, re, im);
+        for (int k = 0; k < re.length; k++) {
+            double r = re[k] * kernelRe[k] - im[k] * kernelIm[k];
+            double i = re[k] * kernelIm[k] + im[k] * kernelRe[k];
+            re[k] = r;
+            im[k] = i;
+        }
+        RealFourierTransform.inverse(re, im, work);
+
+        // last M - 1 samples are history of next frame
+        System.arraycopy(frame, blockSize, frame, 0, M - 1);
+        filled = 0;
+    }
+
+    /**
+     * Size of FFT frame, about 8 times number of coefficients, so that most of frame is emitted.
+     */
+    private static int frameSize(int M) {
+        int size = Integer.highestOneBit(Math.max(1, 8 * M - 1)) << 1;
+        return Math.max(4, size);
+    }
+}
@@ -0,0 +1,177 @@
+package cps.model.filter;
+
+import lombok.Getter;
+
+/**
+ * Direct FIR filtration exploiting symmetry of linear-phase coefficients. Windowed sinc coefficients are symmetric,
+ * h[k] = h[M - 1 - k], and after high pass sign flip of even length they are antisymmetric, so pairs of samples
+ * sharing a coefficient are added or subtracted first and each pair needs single multiply.
+ * Loops run over taps outside and over outputs inside, with unit stride on padded samples,
+ * which lets JIT compiler vectorize inner loop. Coefficients without symmetry are filtered without folding.
+ */
+public final class SymmetricFIRKernel {
+
+    public enum Symmetry {
+        SYMMETRIC,
+        ANTISYMMETRIC,
+        NONE
+    }
+
+    // outputs computed per block, so that block of samples stays in cache for all taps
+    private static final int BLOCK_SIZE = 4096;
+    private static final double SYMMETRY_TOLERANCE = 1e-12;
+
+    private final double[] coefficients;
+    @Getter
+    private final Symmetry symmetry;
+
+    public SymmetricFIRKernel(double[] coefficients) {
+        if (coefficients.length == 0) {
+            throw new IllegalArgumentException("Empty coefficients");
+        }
+        this.coefficients = coefficients.clone();
+        this.symmetry = detectSymmetry(coefficients);
+    }
+
+    /**
+     * Full convolution of samples with coefficients.
+     * @param samples Samples to filter.
+     * @return Product of convolution, samples.length + M - 1 values.
+     */
+    public double[] convolve(double[] samples) {
+        int M = coefficients.length;
+        return filter(samples, 0, samples.length + M - 1);
+    }
+
+    /**
+     * Filtration compensated for delay of (M - 1) / 2 samples, same as FIR filtration of {@code SignalOperations}.
+     * @param samples Samples to filter.
+     * @return Filtered samples, as many as given ones.
+     */
+    public double[] filter(double[] samples) {
+        return filter(samples, (coefficients.length - 1) / 2, samples.length);
+    }
+
+    /**
+     * Computes outputs [first, first + count) of full convolution.
+     */
+    private double[] filter(double[] samples, int first, int count) {
+        int padding = coefficients.length - 1;
+        double[] padded = pad(samples, padding);
+
+        double[] output = new double[count];
+        for (int from = 0; from < count; from += BLOCK_SIZE) {
+            filterBlock(padded, padding, output, first, from, Math.min(count, from + BLOCK_SIZE));
+        }
+        return output;
+    }
+
+    /**
+     * Computes outputs [from, to) of given array, being outputs from first + from of full convolution.
+     * @param padded Samples with zeros on both sides, so that no output needs bounds checks.
+     * @param padding No. of zeros on each side, at least M - 1.
+     * @param output Array of outputs.
+     * @param first Index of full convolution's output stored at index 0.
+     * @param from Index of first computed output, inclusive.
+     * @param to Index of last computed output, exclusive.
+     */
+    void filterBlock(double[] padded, int padding, double[] output, int first, int from, int to) {
+        int offset = first + padding - (coefficients.length - 1);
+        switch (symmetry) {
+            case SYMMETRIC -> symmetricBlock(padded, output, offset, from, to);
+            case ANTISYMMETRIC -> antisymmetricBlock(padded, output, offset, from, to);
+            case NONE -> directBlock(padded, output, offset, from, to);
+        }
+    }
+
+    int getLength() {
+        return coefficients.length;
+    }
+
+    static double[] pad(double[] samples, int padding) {
+        double[] padded = new double[samples.length + 2 * padding];
+        System.arraycopy(samples, 0, padded, padding, samples.length);
+        return padded;
+    }
+
+    /**
+     * y[n] = sum of h[k] * (x[n - k] + x[n - M + 1 + k]) for k < M / 2, with middle tap for odd M.
+     * In padded samples x[n - k] lies at index offset + n + M - 1 - k.
+     */
+    private void symmetricBlock(double[] padded, double[] output, int offset, int from, int to) {
+        int M = coefficients.length;
+        for (int k = 0; k < M / 2; k++) {
+            double h = coefficients[k];
+            int near = offset + M - 1 - k;
+            int far = offset + k;
+            for (int n = from; n < to; n++) {
+                output[n] += h * (padded[near + n] + padded[far + n]);
+            }
+        }
+        middleTap(padded, output, offset, from, to);
+    }
+
+    /**
+     * y[n] = sum of h[k] * (x[n - k] - x[n - M + 1 + k]) for k < M / 2, with middle tap for odd M.
+     */
+    private void antisymmetricBlock(double[] padded, double[] output, int offset, int from, int to) {
+        int M = coefficients.length;
+        for (int k = 0; k < M / 2; k++) {
+            double h = coefficients[k];
+            int near = offset + M - 1 - k;
+            int far = offset + k;
+            for (int n = from; n < to; n++) {
+                output[n] += h * (padded[near + n] - padded[far + n]);
+            }
+        }
+        middleTap(padded, output, offset, from, to);
+    }
+
+    private void middleTap(double[] padded, double[] output, int offset, int from, int to) {
+        int M = coefficients.length;
+        if (M % 2 == 1) {
+            int half = M / 2;
+            double h = coefficients[half];
+            int middle = offset + M - 1 - half;
+            for (int n = from; n < to; n++) {
+                output[n] += h * padded[middle + n];
+            }
+        }
+    }
+
+    private void directBlock(double[] padded, double[] output, int offset, int from, int to) {
+        int M = coefficients.length;
+        for (int k = 0; k < M; k++) {
+            double h = coefficients[k];
+            int index = offset + M - 1 - k;
+            for (int n = from; n < to; n++) {
+                output[n] += h * padded[index + n];
+            }
+        }
+    }
+
+    static Symmetry detectSymmetry(double[] coefficients) {
+        int M = coefficients.length;
+        double scale = 0.0;
+        for (double coefficient : coefficients) {
+            scale = Math.max(scale, Math.abs(coefficient));
+        }
+        double tolerance = SYMMETRY_TOLERANCE * scale;
+
+        boolean symmetric = true;
+        boolean antisymmetric = true;
+        for (int k = 0; k < M / 2; k++) {
+            double a = coefficients[k];
+            double b = coefficients[M - 1 - k];
+            symmetric &= Math.abs(a - b) <= tolerance;
+            antisymmetric &= Math.abs(a + b) <= tolerance;
+        }
+        // antisymmetric filter of odd length has zero middle tap
+        antisymmetric &= M % 2 == 0 || Math.abs(coefficients[M / 2]) <= tolerance;
+
+        if (symmetric) {
+            return Symmetry.SYMMETRIC;
+        }
+        return antisymmetric ? Symmetry.ANTISYMMETRIC : Symmetry.NONE;
+    }
+}
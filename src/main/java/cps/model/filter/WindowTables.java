@@ -0,0 +1,49 @@
+package cps.model.filter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, thread-safe cache of window tables, keyed by window type and length.
+ * Least recently used table is dropped first.
+ */
+public final class WindowTables {
+    private static final int MAX_TABLES = 32;
+
+    private record Key(WindowType type, int length) {
+    }
+
+    private static final Map<Key, double[]> tables = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, double[]> eldest) {
+            return size() > MAX_TABLES;
+        }
+    };
+
+    private WindowTables() {
+    }
+
+    /**
+     * Returns copy of cached window, computing it when missing.
+     * @param type Type of window.
+     * @param M Length of window.
+     * @return New array of window values.
+     */
+    public static double[] window(WindowType type, int M) {
+        return get(type, M).clone();
+    }
+
+    /**
+     * Returns cached window or computes a new one.
+     * @param type Type of window.
+     * @param M Length of window.
+     * @return Shared array of window values, which must not be modified.
+     */
+    static synchronized double[] get(WindowType type, int M) {
+        return tables.computeIfAbsent(new Key(type, M), key -> type.create(M));
+    }
+
+    public static synchronized void clear() {
+        tables.clear();
+    }
+}
@@ -0,0 +1,81 @@
+package cps.model.filter;
+
+import cps.model.SignalOperations;
+
+/**
+ * Windows for FIR design, symmetric around (M - 1) / 2.
+ */
+public enum WindowType {
+    HAMMING {
+        @Override
+        double value(int n, int M) {
+            return SignalOperations.hammingWindow(n, M - 1);
+        }
+    },
+    HANN {
+        @Override
+        double value(int n, int M) {
+            return 0.5 - 0.5 * Math.cos(2 * Math.PI * n / (M - 1));
+        }
+    },
+    BLACKMAN {
+        @Override
+        double value(int n, int M) {
+            double omega = 2 * Math.PI * n / (M - 1);
+            return 0.42 - 0.5 * Math.cos(omega) + 0.08 * Math.cos(2 * omega);
+        }
+    },
+    /**
+     * Kaiser window with beta = {@value #KAISER_BETA}, giving stop band attenuation about 54 dB, close to Hamming window.
+     */
+    KAISER {
+        @Override
+        double value(int n, int M) {
+            double ratio = 2.0 * n / (M - 1) - 1;
+            return besselI0(KAISER_BETA * Math.sqrt(1 - ratio * ratio)) / besselI0(KAISER_BETA);
+        }
+    };
+
+    public static final double KAISER_BETA = 5.0;
+
+    /**
+     * @param n No. of current sample, from 0 to M - 1.
+     * @param M Length of window, at least 2.
+     * @return Value of window at given index.
+     */
+    abstract double value(int n, int M);
+
+    /**
+     * Computes values of whole window. Prefer {@link WindowTables#window(WindowType, int)}, which caches them.
+     * @param M Length of window.
+     * @return New array of M values, single window of length 1 being 1.
+     */
+    public double[] create(int M) {
+        if (M < 1) {
+            throw new IllegalArgumentException("Window length must be positive");
+        }
+        double[] table = new double[M];
+        if (M == 1) {
+            table[0] = 1.0;
+            return table;
+        }
+        for (int n = 0; n < M; n++) {
+            table[n] = value(n, M);
+        }
+        return table;
+    }
+
+    /**
+     * Modified Bessel function of the first kind and order 0, summed from power series until terms vanish.
+     */
+    private static double besselI0(double x) {
+        double sum = 1.0;
+        double term = 1.0;
+        double halfX = x / 2;
+        for (int k = 1; term > 1e-16 * sum; k++) {
+            term *= (halfX / k) * (halfX / k);
+            sum += term;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,286 @@
+package cps.model.signals;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Primitive storage of signal samples. Samples lying on a uniform grid are kept as
+ * start time, step and an array of values. Irregular timestamps fall back to a second array.
+ * Each buffer has unique version, so results computed from its samples can be cached until buffer is replaced.
+ */
+public final class SampleBuffer implements Serializable {
+    // persisted as part of every saved signal, so it must not change with edits of this class
+    @Serial
+    private static final long serialVersionUID = 548228553080017342L;
+    /**
+     * Distance of timestamps, relative to step, still treated as the same point of grid.
+     */
+    public static final double GRID_TOLERANCE = 1e-6;
+    private static final AtomicLong versions = new AtomicLong();
+
+    @Getter
+    private final double startTime;
+    @Getter
+    private final double step;
+    private final double[] values;
+    private final double[] timestamps;
+    // assigned on construction and on deserialization, before buffer is shared
+    private transient long version;
+
+    private SampleBuffer(double startTime, double step, double[] values, double[] timestamps) {
+        this.startTime = startTime;
+        this.step = step;
+        this.values = values;
+        this.timestamps = timestamps;
+        this.version = versions.incrementAndGet();
+    }
+
+    /**
+     * Creates buffer on uniform grid. Given array is not copied.
+     * @param startTime Timestamp of first sample.
+     * @param step Distance between consecutive timestamps.
+     * @param values Array of samples.
+     * @return New buffer.
+     */
+    public static SampleBuffer uniform(double startTime, double step, double[] values) {
+        return new SampleBuffer(startTime, step, values, null);
+    }
+
+    /**
+     * Creates buffer from sorted timestamps. When timestamps lie on a uniform grid,
+     * they are dropped and only start time and step are kept. Given arrays are not copied.
+     * @param timestamps Sorted array of timestamps.
+     * @param values Array of samples, same length as timestamps.
+     * @return New buffer.
+     */
+    public static SampleBuffer of(double[] timestamps, double[] values) {
+        if (timestamps.length != values.length) {
+            throw new IllegalArgumentException("timestamps and values differ in length");
+        }
+        if (timestamps.length == 0) {
+            return uniform(0.0, 0.0, values);
+        }
+
+        double startTime = timestamps[0];
+        double step = timestamps.length > 1 ? timestamps[1] - timestamps[0] : 0.0;
+        double tolerance = GRID_TOLERANCE * Math.abs(step);
+        for (int i = 2; i < timestamps.length; i++) {
+            if (Math.abs(timestamps[i] - (startTime + i * step)) > tolerance) {
+                return new SampleBuffer(startTime, step, values, timestamps);
+            }
+        }
+        return uniform(startTime, step, values);
+    }
+
+    /**
+     * Creates buffer from timestamp-sample pairs of given map, sorted by timestamp
+     * when map does not iterate in ascending order of timestamps.
+     * @param timestampSamples Map of timestamps and samples.
+     * @return New buffer.
+     */
+    public static SampleBuffer of(Map<Double, Double> timestampSamples) {
+        if (!isSorted(timestampSamples.keySet())) {
+            timestampSamples = new TreeMap<>(timestampSamples);
+        }
+        double[] timestamps = new double[timestampSamples.size()];
+        double[] values = new double[timestampSamples.size()];
+        int i = 0;
+        for (Map.Entry<Double, Double> entry : timestampSamples.entrySet()) {
+            timestamps[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+        return of(timestamps, values);
+    }
+
+    private static boolean isSorted(Iterable<Double> timestamps) {
+        double previous = Double.NEGATIVE_INFINITY;
+        for (double timestamp : timestamps) {
+            if (timestamp < previous) {
+                return false;
+            }
+            previous = timestamp;
+        }
+        return true;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Version unique among buffers of this run, identifying samples of this buffer. Samples changed in place
+     * through {@link #values()} keep version, so buffer should be replaced by new one instead.
+     * @return Positive version of buffer.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        version = versions.incrementAndGet();
+    }
+
+    public boolean isUniform() {
+        return timestamps == null;
+    }
+
+    /**
+     * Backing array of samples, no copying. Changes made to it are visible in this buffer.
+     */
+    public double[] values() {
+        return values;
+    }
+
+    public double getValue(int i) {
+        return values[i];
+    }
+
+    public double getTimestamp(int i) {
+        return timestamps == null ? startTime + i * step : timestamps[i];
+    }
+
+    public double getEndTime() {
+        return values.length == 0 ? startTime : getTimestamp(values.length - 1);
+    }
+
+    /**
+     * Finds index of sample nearest to given timestamp.
+     * @param timestamp Searched timestamp.
+     * @return Index of nearest sample or -1 if timestamp lies outside of buffer.
+     */
+    public int indexOf(double timestamp) {
+        if (values.length == 0) {
+            return -1;
+        }
+        if (timestamps == null) {
+            if (step == 0.0) {
+                return timestamp == startTime ? 0 : -1;
+            }
+            long index = Math.round((timestamp - startTime) / step);
+            return index < 0 || index >= values.length ? -1 : (int) index;
+        }
+
+        int index = Arrays.binarySearch(timestamps, timestamp);
+        if (index >= 0) {
+            return index;
+        }
+        int insertion = -index - 1;
+        if (insertion == 0 || insertion == timestamps.length) {
+            return -1;
+        }
+        return timestamp - timestamps[insertion - 1] <= timestamps[insertion] - timestamp ? insertion - 1 : insertion;
+    }
+
+    /**
+     * Checks whether both buffers share the same timestamps.
+     * @param other Buffer to compare with.
+     * @return True when samples can be matched by index.
+     */
+    public boolean isAlignedWith(SampleBuffer other) {
+        if (size() != other.size()) {
+            return false;
+        }
+        if (isUniform() && other.isUniform()) {
+            double tolerance = GRID_TOLERANCE * Math.abs(step);
+            return Math.abs(startTime - other.startTime) <= tolerance && Math.abs(step - other.step) * size() <= tolerance;
+        }
+        for (int i = 0; i < size(); i++) {
+            if (getTimestamp(i) != other.getTimestamp(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates buffer with the same timestamps, but different samples.
+     * @param values Array of samples, same length as this buffer.
+     * @return New buffer.
+     */
+    public SampleBuffer withValues(double[] values) {
+        if (values.length != this.values.length) {
+            throw new IllegalArgumentException("values differ in length");
+        }
+        return new SampleBuffer(startTime, step, values, timestamps);
+    }
+
+    /**
+     * Read-only list view of samples, no copying.
+     */
+    public List<Double> valuesView() {
+        return new DoubleArrayView(values.length) {
+            @Override
+            public Double get(int index) {
+                return getValue(index);
+            }
+        };
+    }
+
+    /**
+     * Read-only list view of timestamps, no copying.
+     */
+    public List<Double> timestampsView() {
+        return new DoubleArrayView(values.length) {
+            @Override
+            public Double get(int index) {
+                return getTimestamp(index);
+            }
+        };
+    }
+
+    public LinkedHashMap<Double, Double> toMap() {
+        LinkedHashMap<Double, Double> timestampSamples = LinkedHashMap.newLinkedHashMap(values.length);
+        for (int i = 0; i < values.length; i++) {
+            timestampSamples.put(getTimestamp(i), values[i]);
+        }
+        return timestampSamples;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (SampleBuffer) obj;
+        return Double.doubleToLongBits(this.startTime) == Double.doubleToLongBits(that.startTime) &&
+                Double.doubleToLongBits(this.step) == Double.doubleToLongBits(that.step) &&
+                Arrays.equals(this.values, that.values) &&
+                Arrays.equals(this.timestamps, that.timestamps);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(startTime);
+        result = 31 * result + Double.hashCode(step);
+        result = 31 * result + Arrays.hashCode(values);
+        result = 31 * result + Arrays.hashCode(timestamps);
+        return result;
+    }
+
+    private abstract static class DoubleArrayView extends AbstractList<Double> implements RandomAccess {
+        private final int size;
+
+        DoubleArrayView(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -3,6 +3,11 @@ package cps.model.signals;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.*;
 
@@ -10,6 +15,22 @@ import java.util.*;
 @AllArgsConstructor
 @SuperBuilder
 public class Signal implements Serializable {
+    // identifier of class before samples were moved to sample buffer, so that saved signals still load
+    @Serial
+    private static final long serialVersionUID = 5105092085893693641L;
+
+    // serialized form, with legacy map of samples read from signals saved before sample buffer
+    @Serial
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("name", String.class),
+            new ObjectStreamField("amplitude", double.class),
+            new ObjectStreamField("startTime", double.class),
+            new ObjectStreamField("durationTime", double.class),
+            new ObjectStreamField("sampleBuffer", SampleBuffer.class),
+            new ObjectStreamField("signalType", SignalType.class),
+            new ObjectStreamField("timestampSamples", LinkedHashMap.class)
+    };
+
     @Builder.Default
     String name = "Signal";
 
@@ -17,20 +38,80 @@ public class Signal implements Serializable {
     double startTime;
     double durationTime;
 
-    LinkedHashMap<Double, Double> timestampSamples;
+    SampleBuffer sampleBuffer;
     SignalType signalType;
 
     public double getTimeStep() {
-        List<Double> timestamps = getTimestamps();
-        return timestamps.get(1) - timestamps.get(0);
+        if (sampleBuffer.isUniform()) {
+            return sampleBuffer.getStep();
+        }
+        return sampleBuffer.getTimestamp(1) - sampleBuffer.getTimestamp(0);
+    }
+
+    public int size() {
+        return sampleBuffer.size();
     }
 
+    /**
+     * @return Version of samples, changed whenever they are replaced with {@link #setSampleBuffer(SampleBuffer)}
+     * or {@link #setTimestampSamples(Map)}.
+     */
+    public long getVersion() {
+        return sampleBuffer.getVersion();
+    }
+
+    /**
+     * @return Read-only view of timestamps, backed by sample buffer.
+     */
     public List<Double> getTimestamps() {
-        return new ArrayList<>(timestampSamples.keySet());
+        return sampleBuffer.timestampsView();
     }
 
+    /**
+     * @return Read-only view of samples, backed by sample buffer.
+     */
     public List<Double> getSamples() {
-        return new ArrayList<>(timestampSamples.values());
+        return sampleBuffer.valuesView();
+    }
+
+    /**
+     * @return New map of timestamps and samples. Prefer {@link #getSampleBuffer()} for large signals.
+     */
+    public LinkedHashMap<Double, Double> getTimestampSamples() {
+        return sampleBuffer.toMap();
+    }
+
+    public void setTimestampSamples(Map<Double, Double> timestampSamples) {
+        this.sampleBuffer = SampleBuffer.of(timestampSamples);
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("name", name);
+        fields.put("amplitude", amplitude);
+        fields.put("startTime", startTime);
+        fields.put("durationTime", durationTime);
+        fields.put("sampleBuffer", sampleBuffer);
+        fields.put("signalType", signalType);
+        out.writeFields();
+    }
+
+    @Serial
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        name = (String) fields.get("name", null);
+        amplitude = fields.get("amplitude", 0.0);
+        startTime = fields.get("startTime", 0.0);
+        durationTime = fields.get("durationTime", 0.0);
+        signalType = (SignalType) fields.get("signalType", null);
+        sampleBuffer = (SampleBuffer) fields.get("sampleBuffer", null);
+
+        Map<Double, Double> timestampSamples = (Map<Double, Double>) fields.get("timestampSamples", null);
+        if (sampleBuffer == null && timestampSamples != null) {
+            sampleBuffer = SampleBuffer.of(timestampSamples);
+        }
     }
 
     @Override
@@ -0,0 +1,135 @@
+package cps.model.statistics;
+
+import lombok.Getter;
+
+import java.util.stream.IntStream;
+
+/**
+ * Histogram of samples counted into primitive array of equal-width bins. Histograms with the same bins
+ * are merged, so large arrays are counted in parallel chunks. Bin labels are formatted on request,
+ * once per bin, instead of once per sample. Single instance must not be shared between threads.
+ */
+public final class Histogram {
+    // margin added to maximum, so that it falls into last bin, widened for large magnitudes
+    private static final double MAX_MARGIN = 0.000001;
+    private static final int MAX_MARGIN_ULPS = 4;
+    // samples of single parallel task
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    @Getter
+    private final double min;
+    @Getter
+    private final double binWidth;
+    private final long[] counts;
+    @Getter
+    private long totalCount;
+
+    /**
+     * Creates empty histogram.
+     * @param min Lower bound of first bin.
+     * @param max Upper bound of last bin.
+     * @param binCount No. of bins.
+     */
+    public Histogram(double min, double max, int binCount) {
+        if (binCount < 1) {
+            throw new IllegalArgumentException("No. of bins must be positive: " + binCount);
+        }
+        if (!(max > min)) {
+            throw new IllegalArgumentException("Upper bound must exceed lower bound");
+        }
+        this.min = min;
+        this.binWidth = (max - min) / binCount;
+        this.counts = new long[binCount];
+    }
+
+    /**
+     * Counts all samples into bins spanning their range, in parallel for large arrays.
+     * @param samples Discrete samples, not empty.
+     * @param binCount No. of bins.
+     * @return New histogram.
+     */
+    public static Histogram of(double[] samples, int binCount) {
+        if (samples.length == 0) {
+            throw new IllegalArgumentException("empty sample list");
+        }
+        StatisticsAccumulator range = StatisticsAccumulator.of(samples);
+        double min = range.getMin();
+        double max = range.getMax() + Math.max(MAX_MARGIN, MAX_MARGIN_ULPS * Math.ulp(range.getMax()));
+
+        if (samples.length < StatisticsAccumulator.PARALLEL_THRESHOLD) {
+            Histogram histogram = new Histogram(min, max, binCount);
+            histogram.accept(samples, 0, samples.length);
+            return histogram;
+        }
+        int chunks = (samples.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    Histogram histogram = new Histogram(min, max, binCount);
+                    histogram.accept(samples, chunk * CHUNK_SIZE, Math.min(samples.length, (chunk + 1) * CHUNK_SIZE));
+                    return histogram;
+                })
+                .reduce(Histogram::merge)
+                .orElseThrow();
+    }
+
+    /**
+     * Counts sample into its bin. Samples outside of bounds are counted into first or last bin.
+     * @param sample Sample value.
+     */
+    public void accept(double sample) {
+        int bin = (int) Math.floor((sample - min) / binWidth);
+        counts[Math.clamp(bin, 0, counts.length - 1)]++;
+        totalCount++;
+    }
+
+    /**
+     * @param samples Array with samples.
+     * @param from Index of first sample, inclusive.
+     * @param to Index of last sample, exclusive.
+     */
+    public void accept(double[] samples, int from, int to) {
+        for (int i = from; i < to; i++) {
+            accept(samples[i]);
+        }
+    }
+
+    /**
+     * Adds counts of other histogram with the same bins to this one.
+     * @param other Histogram of other samples, left unchanged.
+     * @return This histogram.
+     */
+    public Histogram merge(Histogram other) {
+        if (other.counts.length != counts.length || other.min != min || other.binWidth != binWidth) {
+            throw new IllegalArgumentException("Histograms differ in bins");
+        }
+        for (int bin = 0; bin < counts.length; bin++) {
+            counts[bin] += other.counts[bin];
+        }
+        totalCount += other.totalCount;
+        return this;
+    }
+
+    public int getBinCount() {
+        return counts.length;
+    }
+
+    public long getCount(int bin) {
+        return counts[bin];
+    }
+
+    public double getLowerBound(int bin) {
+        return min + bin * binWidth;
+    }
+
+    public double getUpperBound(int bin) {
+        return min + (bin + 1) * binWidth;
+    }
+
+    /**
+     * @param bin No. of bin.
+     * @return Bounds of bin formatted as "lower - upper" with 2 decimal places.
+     */
+    public String label(int bin) {
+        return String.format("%.2f - %.2f", getLowerBound(bin), getUpperBound(bin));
+    }
+}
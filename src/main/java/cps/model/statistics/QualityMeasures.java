@@ -0,0 +1,156 @@
+package cps.model.statistics;
+
+import cps.model.signals.SampleBuffer;
+import lombok.Getter;
+
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Measures of similarity between signal and its base signal: MSE, SNR, PSNR, ENOB and MD, all gathered
+ * in one pass over pairs of samples. Samples are paired by index when both signals share timestamps,
+ * otherwise by index of base sample lying at the same timestamp, so no timestamp lookup in maps is needed.
+ * Partial measures of separate parts of signal are merged, so long signals are measured in parallel.
+ */
+public final class QualityMeasures {
+    private static final Logger logger = Logger.getLogger(QualityMeasures.class.getName());
+    // samples of single parallel task
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    // all samples of signal, including ones missing in base signal
+    @Getter
+    private long count;
+    @Getter
+    private long missingCount;
+    private double signalSquaredSum;
+    private double errorSquaredSum;
+    private double maxSample = Double.NEGATIVE_INFINITY;
+    private double maxDifference;
+
+    /**
+     * Measures signal against base signal, in parallel for long signals.
+     * @param base Samples of base signal.
+     * @param samples Samples of measured signal.
+     * @return New measures.
+     */
+    public static QualityMeasures of(SampleBuffer base, SampleBuffer samples) {
+        if (samples.size() == 0) {
+            throw new IllegalArgumentException("empty sample list");
+        }
+        boolean aligned = base.isAlignedWith(samples);
+        int N = samples.size();
+
+        QualityMeasures measures;
+        if (N < StatisticsAccumulator.PARALLEL_THRESHOLD) {
+            measures = new QualityMeasures();
+            measures.accept(base, samples, aligned, 0, N);
+        } else {
+            int chunks = (N + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            measures = IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> {
+                        QualityMeasures partial = new QualityMeasures();
+                        partial.accept(base, samples, aligned, chunk * CHUNK_SIZE, Math.min(N, (chunk + 1) * CHUNK_SIZE));
+                        return partial;
+                    })
+                    .reduce(QualityMeasures::merge)
+                    .orElseThrow();
+        }
+
+        if (measures.missingCount > 0) {
+            logger.warning("missing base samples: " + measures.missingCount);
+        }
+        return measures;
+    }
+
+    private void accept(SampleBuffer base, SampleBuffer samples, boolean aligned, int from, int to) {
+        double[] values = samples.values();
+        double[] baseValues = base.values();
+        for (int i = from; i < to; i++) {
+            int baseIndex = aligned ? i : baseIndexOf(base, samples.getTimestamp(i));
+            if (baseIndex < 0) {
+                count++;
+                missingCount++;
+                maxSample = Math.max(maxSample, values[i]);
+                continue;
+            }
+            accept(values[i], baseValues[baseIndex]);
+        }
+    }
+
+    private static int baseIndexOf(SampleBuffer base, double timestamp) {
+        int index = base.indexOf(timestamp);
+        if (index < 0) {
+            return -1;
+        }
+        double tolerance = base.size() > 1 ? SampleBuffer.GRID_TOLERANCE * Math.abs(base.getTimestamp(1) - base.getTimestamp(0)) : 0.0;
+        return Math.abs(base.getTimestamp(index) - timestamp) <= tolerance ? index : -1;
+    }
+
+    /**
+     * Adds pair of samples at the same timestamp.
+     * @param sample Sample of measured signal.
+     * @param baseSample Sample of base signal.
+     */
+    public void accept(double sample, double baseSample) {
+        double difference = sample - baseSample;
+        count++;
+        signalSquaredSum += sample * sample;
+        errorSquaredSum += difference * difference;
+        maxSample = Math.max(maxSample, sample);
+        maxDifference = Math.max(maxDifference, Math.abs(difference));
+    }
+
+    /**
+     * Adds measures of other part of signal to this one.
+     * @param other Measures of other samples, left unchanged.
+     * @return This measures.
+     */
+    public QualityMeasures merge(QualityMeasures other) {
+        count += other.count;
+        missingCount += other.missingCount;
+        signalSquaredSum += other.signalSquaredSum;
+        errorSquaredSum += other.errorSquaredSum;
+        maxSample = Math.max(maxSample, other.maxSample);
+        maxDifference = Math.max(maxDifference, other.maxDifference);
+        return this;
+    }
+
+    /**
+     * @return Root of squared differences summed over paired samples and divided by all samples of signal.
+     */
+    public double getMSE() {
+        return Math.sqrt(errorSquaredSum / count);
+    }
+
+    /**
+     * @return Ratio of signal power to power of differences, in dB, infinite for identical signals.
+     */
+    public double getSNR() {
+        if (errorSquaredSum == 0) {
+            logger.warning("lower sum is zero");
+            return Double.POSITIVE_INFINITY;
+        }
+        return 10 * Math.log10(signalSquaredSum / errorSquaredSum);
+    }
+
+    /**
+     * @return Ratio of maximum sample to MSE, in dB.
+     */
+    public double getPSNR() {
+        return 10 * Math.log10(maxSample / getMSE());
+    }
+
+    /**
+     * @return Effective number of bits, (SNR - 1.76) / 6.02.
+     */
+    public double getENOB() {
+        return (getSNR() - 1.76) / 6.02;
+    }
+
+    /**
+     * @return Maximum absolute difference of paired samples.
+     */
+    public double getMD() {
+        return maxDifference;
+    }
+}
@@ -0,0 +1,245 @@
+package cps.model.statistics;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * KLL quantile sketch. Samples are kept in levels of compactors, sample at level h standing for 2^h samples.
+ * Compactor over its capacity sorts its samples and promotes every other one, starting at random offset,
+ * to the next level. Capacities shrink by factor 2/3 from the top level down, so memory is O(k) for any
+ * no. of samples. Sketches merge level by level, so large arrays are sketched in parallel chunks.
+ * <p>
+ * Rank of returned quantile differs from the exact one by O(n / k) with high probability; with default
+ * k = 200 the error is around 1-2% of samples count. Minimum and maximum are exact.
+ * Single instance must not be shared between threads.
+ */
+public final class QuantileSketch {
+    public static final int DEFAULT_K = 200;
+    private static final int MIN_CAPACITY = 8;
+    private static final double CAPACITY_FACTOR = 2.0 / 3.0;
+    // samples of single parallel task
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    @Getter
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private int[] capacities = new int[1];
+    @Getter
+    private long count;
+    @Getter
+    private double min = Double.POSITIVE_INFINITY;
+    @Getter
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k Capacity of top level, bigger values give smaller error and use more memory.
+     */
+    public QuantileSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        capacities[0] = k;
+        levels[0] = new double[k];
+    }
+
+    /**
+     * Sketches all samples, in parallel for large arrays.
+     * @param samples Discrete samples.
+     * @return New sketch with default k.
+     */
+    public static QuantileSketch of(double[] samples) {
+        if (samples.length < StatisticsAccumulator.PARALLEL_THRESHOLD) {
+            QuantileSketch sketch = new QuantileSketch();
+            sketch.accept(samples, 0, samples.length);
+            return sketch;
+        }
+        int chunks = (samples.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    QuantileSketch sketch = new QuantileSketch();
+                    sketch.accept(samples, chunk * CHUNK_SIZE, Math.min(samples.length, (chunk + 1) * CHUNK_SIZE));
+                    return sketch;
+                })
+                .reduce(QuantileSketch::merge)
+                .orElseThrow();
+    }
+
+    public void accept(double sample) {
+        if (Double.isNaN(sample)) {
+            throw new IllegalArgumentException("NaN sample");
+        }
+        count++;
+        min = Math.min(min, sample);
+        max = Math.max(max, sample);
+
+        if (sizes[0] >= capacities[0]) {
+            compress(0);
+        }
+        if (sizes[0] == levels[0].length) {
+            levels[0] = Arrays.copyOf(levels[0], 2 * levels[0].length);
+        }
+        levels[0][sizes[0]++] = sample;
+    }
+
+    /**
+     * @param samples Array with samples.
+     * @param from Index of first sample, inclusive.
+     * @param to Index of last sample, exclusive.
+     */
+    public void accept(double[] samples, int from, int to) {
+        for (int i = from; i < to; i++) {
+            accept(samples[i]);
+        }
+    }
+
+    /**
+     * Adds samples of other sketch with the same k to this one.
+     * @param other Sketch of other samples, left unchanged.
+     * @return This sketch.
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Sketches differ in k");
+        }
+        while (levels.length < other.levels.length) {
+            addLevel();
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            append(h, other.levels[h], other.sizes[h]);
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+
+        while (isOverCapacity()) {
+            int level = 0;
+            while (level < levels.length - 1 && sizes[level] < capacities[level]) {
+                level++;
+            }
+            compress(level);
+        }
+        return this;
+    }
+
+    /**
+     * @param q Fraction of samples lying below quantile, from 0 to 1.
+     * @return Approximate quantile, exact for 0 and 1.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile fraction must lie in [0, 1]: " + q);
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("empty sample list");
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        int retained = Arrays.stream(sizes).sum();
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        Integer[] order = new Integer[retained];
+        for (int h = 0, i = 0; h < levels.length; h++) {
+            for (int j = 0; j < sizes[h]; j++, i++) {
+                values[i] = levels[h][j];
+                weights[i] = 1L << h;
+                order[i] = i;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        double rank = q * count;
+        long cumulative = 0;
+        for (int i : order) {
+            cumulative += weights[i];
+            if (cumulative >= rank) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return No. of samples retained in sketch.
+     */
+    public int getRetainedCount() {
+        return Arrays.stream(sizes).sum();
+    }
+
+    private boolean isOverCapacity() {
+        int total = 0;
+        int capacity = 0;
+        for (int h = 0; h < levels.length; h++) {
+            total += sizes[h];
+            capacity += capacities[h];
+        }
+        return total > capacity;
+    }
+
+    /**
+     * Compacts given level, then every next one pushed over its capacity by promoted samples.
+     */
+    private void compress(int level) {
+        for (; ; level++) {
+            if (level == levels.length - 1) {
+                addLevel();
+            }
+            compact(level);
+            if (sizes[level + 1] < capacities[level + 1]) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sorts samples of level and promotes every other one, starting at random offset, to the next level.
+     */
+    private void compact(int level) {
+        double[] items = levels[level];
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        // odd sample stays at its level
+        int kept = size & 1;
+        int offset = ThreadLocalRandom.current().nextInt(2);
+        int promoted = (size - kept) / 2;
+        double[] buffer = new double[promoted];
+        for (int i = 0; i < promoted; i++) {
+            buffer[i] = items[kept + 2 * i + offset];
+        }
+        sizes[level] = kept;
+        append(level + 1, buffer, promoted);
+    }
+
+    private void addLevel() {
+        int height = levels.length + 1;
+        levels = Arrays.copyOf(levels, height);
+        sizes = Arrays.copyOf(sizes, height);
+        capacities = new int[height];
+        for (int h = 0; h < height; h++) {
+            capacities[h] = Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_FACTOR, height - 1 - h)));
+        }
+        levels[height - 1] = new double[capacities[height - 1]];
+    }
+
+    private void append(int level, double[] items, int size) {
+        int required = sizes[level] + size;
+        if (levels[level].length < required) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(required, 2 * levels[level].length));
+        }
+        System.arraycopy(items, 0, levels[level], sizes[level], size);
+        sizes[level] = required;
+    }
+}
@@ -0,0 +1,203 @@
+package cps.model.statistics;
+
+import lombok.Getter;
+
+/**
+ * Statistics of last samples in sliding window, updated in O(1) per sample. Mean and variance are updated
+ * with Welford's formulas for added and removed samples, minimum and maximum are kept at heads of monotonic
+ * deques of window positions. Rounding errors left by removed samples are cleared by recomputing sums from
+ * the window once every windowSize samples, which keeps amortized cost O(1). Before window fills up, statistics cover all samples pushed so far.
+ * Samples may be pushed one by one or in chunks, so signals need not be held in memory at once.
+ */
+public final class RollingStatistics {
+
+    public enum Measure {
+        MEAN, RMS, VARIANCE, MIN, MAX
+    }
+
+    @Getter
+    private final int windowSize;
+    // ring buffer of samples in window, sample at position p lies at index p % windowSize
+    private final double[] window;
+    // ring buffers of positions with increasing samples (min) and decreasing samples (max)
+    private final long[] minDeque;
+    private final long[] maxDeque;
+    private int minHead;
+    private int minSize;
+    private int maxHead;
+    private int maxSize;
+
+    // no. of samples pushed so far
+    private long position;
+    private double mean;
+    // sum of squared differences from mean
+    private double m2;
+    private double squaredSum;
+
+    /**
+     * @param windowSize No. of last samples covered by statistics.
+     */
+    public RollingStatistics(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        this.windowSize = windowSize;
+        this.window = new double[windowSize];
+        this.minDeque = new long[windowSize];
+        this.maxDeque = new long[windowSize];
+    }
+
+    /**
+     * Computes statistic of window ending at each sample.
+     * @param samples Discrete samples.
+     * @param windowSize No. of samples in window.
+     * @param measure Computed statistic.
+     * @return Statistic for each sample, as many as given samples.
+     */
+    public static double[] compute(double[] samples, int windowSize, Measure measure) {
+        RollingStatistics statistics = new RollingStatistics(windowSize);
+        double[] result = new double[samples.length];
+        statistics.process(samples, 0, samples.length, measure, result, 0);
+        return result;
+    }
+
+    /**
+     * Pushes chunk of samples, writing statistic of window ending at each of them.
+     * @param samples Array with samples.
+     * @param from Index of first sample, inclusive.
+     * @param to Index of last sample, exclusive.
+     * @param measure Computed statistic.
+     * @param output Array for statistics, to - from values.
+     * @param offset Index of first statistic in output.
+     */
+    public void process(double[] samples, int from, int to, Measure measure, double[] output, int offset) {
+        for (int i = from; i < to; i++) {
+            push(samples[i]);
+            output[offset + i - from] = get(measure);
+        }
+    }
+
+    /**
+     * Adds sample to window, removing the oldest one when window is full.
+     * @param sample Next sample.
+     */
+    public void push(double sample) {
+        int slot = (int) (position % windowSize);
+        if (position >= windowSize) {
+            double removed = window[slot];
+            double oldMean = mean;
+            mean += (sample - removed) / windowSize;
+            m2 += (sample - removed) * (sample - mean + removed - oldMean);
+            squaredSum += sample * sample - removed * removed;
+        } else {
+            double delta = sample - mean;
+            mean += delta / (position + 1);
+            m2 += delta * (sample - mean);
+            squaredSum += sample * sample;
+        }
+        window[slot] = sample;
+
+        long expired = position - windowSize;
+        if (minSize > 0 && minDeque[minHead] == expired) {
+            minHead = (minHead + 1) % windowSize;
+            minSize--;
+        }
+        if (maxSize > 0 && maxDeque[maxHead] == expired) {
+            maxHead = (maxHead + 1) % windowSize;
+            maxSize--;
+        }
+        while (minSize > 0 && valueAt(minDeque[(minHead + minSize - 1) % windowSize]) >= sample) {
+            minSize--;
+        }
+        minDeque[(minHead + minSize++) % windowSize] = position;
+        while (maxSize > 0 && valueAt(maxDeque[(maxHead + maxSize - 1) % windowSize]) <= sample) {
+            maxSize--;
+        }
+        maxDeque[(maxHead + maxSize++) % windowSize] = position;
+
+        position++;
+        if (position % windowSize == 0) {
+            recompute();
+        }
+    }
+
+    /**
+     * Computes mean, squared differences and squared sum of full window from scratch.
+     */
+    private void recompute() {
+        double sum = 0.0;
+        double squares = 0.0;
+        for (double sample : window) {
+            sum += sample;
+            squares += sample * sample;
+        }
+        double windowMean = sum / windowSize;
+        double differences = 0.0;
+        for (double sample : window) {
+            differences += (sample - windowMean) * (sample - windowMean);
+        }
+        mean = windowMean;
+        m2 = differences;
+        squaredSum = squares;
+    }
+
+    /**
+     * Clears window, as if no sample was pushed.
+     */
+    public void reset() {
+        position = 0;
+        mean = 0;
+        m2 = 0;
+        squaredSum = 0;
+        minHead = 0;
+        minSize = 0;
+        maxHead = 0;
+        maxSize = 0;
+    }
+
+    public double get(Measure measure) {
+        return switch (measure) {
+            case MEAN -> getMean();
+            case RMS -> getRMS();
+            case VARIANCE -> getVariance();
+            case MIN -> getMin();
+            case MAX -> getMax();
+        };
+    }
+
+    /**
+     * @return No. of samples currently in window.
+     */
+    public int getCount() {
+        return (int) Math.min(position, windowSize);
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return Population variance of samples in window.
+     */
+    public double getVariance() {
+        int count = getCount();
+        return count == 0 ? 0.0 : Math.max(0.0, m2 / count);
+    }
+
+    public double getRMS() {
+        int count = getCount();
+        return count == 0 ? 0.0 : Math.sqrt(Math.max(0.0, squaredSum / count));
+    }
+
+    public double getMin() {
+        return minSize == 0 ? Double.NaN : valueAt(minDeque[minHead]);
+    }
+
+    public double getMax() {
+        return maxSize == 0 ? Double.NaN : valueAt(maxDeque[maxHead]);
+    }
+
+    private double valueAt(long samplePosition) {
+        return window[(int) (samplePosition % windowSize)];
+    }
+}
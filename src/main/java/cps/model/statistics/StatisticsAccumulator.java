@@ -0,0 +1,123 @@
+package cps.model.statistics;
+
+import lombok.Getter;
+
+import java.util.stream.IntStream;
+
+/**
+ * Single-pass statistics of samples: count, sum, absolute sum, sum of squares, min, max, and mean with
+ * variance updated by Welford's algorithm. Accumulators of separate parts of signal are merged with
+ * Chan's formula, so large arrays are split into chunks accumulated in parallel on common
+ * {@link java.util.concurrent.ForkJoinPool}. Single instance must not be shared between threads.
+ */
+public final class StatisticsAccumulator {
+    // arrays from this size are accumulated in parallel
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    // samples of single parallel task
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    @Getter
+    private long count;
+    @Getter
+    private double sum;
+    @Getter
+    private double absoluteSum;
+    @Getter
+    private double squaredSum;
+    @Getter
+    private double min = Double.POSITIVE_INFINITY;
+    @Getter
+    private double max = Double.NEGATIVE_INFINITY;
+    @Getter
+    private double mean;
+    // sum of squared differences from mean
+    private double m2;
+
+    /**
+     * Accumulates all samples, in parallel for large arrays.
+     * @param samples Discrete samples.
+     * @return New accumulator.
+     */
+    public static StatisticsAccumulator of(double[] samples) {
+        if (samples.length < PARALLEL_THRESHOLD) {
+            StatisticsAccumulator accumulator = new StatisticsAccumulator();
+            accumulator.accept(samples, 0, samples.length);
+            return accumulator;
+        }
+        int chunks = (samples.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    StatisticsAccumulator accumulator = new StatisticsAccumulator();
+                    accumulator.accept(samples, chunk * CHUNK_SIZE, Math.min(samples.length, (chunk + 1) * CHUNK_SIZE));
+                    return accumulator;
+                })
+                .reduce(StatisticsAccumulator::merge)
+                .orElseGet(StatisticsAccumulator::new);
+    }
+
+    public void accept(double sample) {
+        count++;
+        sum += sample;
+        absoluteSum += Math.abs(sample);
+        squaredSum += sample * sample;
+        min = Math.min(min, sample);
+        max = Math.max(max, sample);
+
+        double delta = sample - mean;
+        mean += delta / count;
+        m2 += delta * (sample - mean);
+    }
+
+    /**
+     * @param samples Array with samples.
+     * @param from Index of first sample, inclusive.
+     * @param to Index of last sample, exclusive.
+     */
+    public void accept(double[] samples, int from, int to) {
+        for (int i = from; i < to; i++) {
+            accept(samples[i]);
+        }
+    }
+
+    /**
+     * Adds statistics of other accumulator to this one.
+     * @param other Accumulator of other samples, left unchanged.
+     * @return This accumulator.
+     */
+    public StatisticsAccumulator merge(StatisticsAccumulator other) {
+        if (other.count == 0) {
+            return this;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+
+        sum += other.sum;
+        absoluteSum += other.absoluteSum;
+        squaredSum += other.squaredSum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public double getAbsoluteMean() {
+        return count == 0 ? 0.0 : absoluteSum / count;
+    }
+
+    public double getAveragePower() {
+        return count == 0 ? 0.0 : squaredSum / count;
+    }
+
+    /**
+     * @return Population variance, mean of squared differences from mean.
+     */
+    public double getVariance() {
+        return count == 0 ? 0.0 : m2 / count;
+    }
+
+    public double getRMS() {
+        return Math.sqrt(getAveragePower());
+    }
+}
@@ -0,0 +1,81 @@
+package cps.model.transform;
+
+import java.util.stream.IntStream;
+
+/**
+ * FFT of many frames of equal size, stored one after another in single pair of arrays.
+ * All frames share one cached plan and are transformed in place, in parallel on common
+ * {@link java.util.concurrent.ForkJoinPool}. Frames of power of 2 size are transformed
+ * without allocations, others are copied through buffers allocated once per task.
+ */
+public final class BatchFourierTransform {
+    // minimal number of samples transformed by single task
+    private static final int TASK_SAMPLES = 1 << 14;
+
+    private BatchFourierTransform() {
+    }
+
+    /**
+     * Forward FFT of each frame, without normalization.
+     * @param re Real parts of M frames, frame m starting at m * frameSize.
+     * @param im Imaginary parts, same length as re.
+     * @param frameSize Size of single frame, dividing length of samples.
+     */
+    public static void fft(double[] re, double[] im, int frameSize) {
+        transform(re, im, frameSize, false);
+    }
+
+    /**
+     * Inverse FFT of each frame, without 1/N normalization.
+     * @param re Real parts of M frames, frame m starting at m * frameSize.
+     * @param im Imaginary parts, same length as re.
+     * @param frameSize Size of single frame, dividing length of samples.
+     */
+    public static void ifft(double[] re, double[] im, int frameSize) {
+        transform(re, im, frameSize, true);
+    }
+
+    private static void transform(double[] re, double[] im, int frameSize, boolean inverse) {
+        FourierTransform.checkLength(re, im);
+        if (frameSize < 1 || re.length % frameSize != 0) {
+            throw new IllegalArgumentException("Samples length " + re.length + " is not a multiple of frame size " + frameSize);
+        }
+        int frames = re.length / frameSize;
+        int framesPerTask = Math.max(1, TASK_SAMPLES / frameSize);
+        int tasks = (frames + framesPerTask - 1) / framesPerTask;
+
+        if ((frameSize & (frameSize - 1)) == 0) {
+            FourierPlan plan = FourierPlanCache.forSize(frameSize);
+            IntStream.range(0, tasks).parallel().forEach(task -> {
+                int last = Math.min(frames, (task + 1) * framesPerTask);
+                for (int m = task * framesPerTask; m < last; m++) {
+                    if (inverse) {
+                        plan.inverse(re, im, m * frameSize);
+                    } else {
+                        plan.forward(re, im, m * frameSize);
+                    }
+                }
+            });
+            return;
+        }
+
+        GeneralFourierPlan plan = FourierPlanCache.forLength(frameSize);
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            double[] frameRe = new double[frameSize];
+            double[] frameIm = new double[frameSize];
+            int last = Math.min(frames, (task + 1) * framesPerTask);
+            for (int m = task * framesPerTask; m < last; m++) {
+                int offset = m * frameSize;
+                System.arraycopy(re, offset, frameRe, 0, frameSize);
+                System.arraycopy(im, offset, frameIm, 0, frameSize);
+                if (inverse) {
+                    plan.inverse(frameRe, frameIm);
+                } else {
+                    plan.forward(frameRe, frameIm);
+                }
+                System.arraycopy(frameRe, 0, re, offset, frameSize);
+                System.arraycopy(frameIm, 0, im, offset, frameSize);
+            }
+        });
+    }
+}
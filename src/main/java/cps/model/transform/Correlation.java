@@ -0,0 +1,177 @@
+package cps.model.transform;
+
+/**
+ * Cross-correlation and autocorrelation of real samples. Value at lag l equals sum of s1[n + l] * s2[n],
+ * for lags from -(M - 1) to N - 1, N and M being lengths of s1 and s2.
+ * Long operands are correlated with FFT, as convolution with reversed second operand.
+ */
+public final class Correlation {
+
+    /**
+     * Range of lags returned.
+     */
+    public enum Mode {
+        /** All N + M - 1 lags, from -(M - 1) to N - 1. */
+        FULL,
+        /** N lags centered like convolution of the same size as s1, from -(M / 2) to N - 1 - M / 2. */
+        SAME,
+        /** N - M + 1 lags where s2 lies fully inside s1, from 0 to N - M. */
+        VALID
+    }
+
+    private Correlation() {
+    }
+
+    /**
+     * @param s1 Array of 1st signal's values.
+     * @param s2 Array of 2nd signal's values.
+     * @param mode Range of lags.
+     * @return Product of correlation, for lags in order.
+     */
+    public static double[] crossCorrelate(double[] s1, double[] s2, Mode mode) {
+        checkNotEmpty(s1, s2);
+        int N = s1.length;
+        int M = s2.length;
+        if (mode == Mode.VALID && M > N) {
+            throw new IllegalArgumentException("Second signal longer than first one, no valid lags");
+        }
+
+        double[] full = FastConvolution.convolve(s1, reversed(s2));
+        return switch (mode) {
+            case FULL -> full;
+            case SAME -> slice(full, (M - 1) / 2, N);
+            case VALID -> slice(full, M - 1, N - M + 1);
+        };
+    }
+
+    /**
+     * Cross-correlation limited to lags from -maxLag to maxLag. Computed directly when it is cheaper
+     * than full FFT correlation, which is the case for small maxLag.
+     * @param s1 Array of 1st signal's values.
+     * @param s2 Array of 2nd signal's values.
+     * @param maxLag Highest absolute lag.
+     * @return 2 * maxLag + 1 values, zero for lags out of range of full correlation.
+     */
+    public static double[] crossCorrelate(double[] s1, double[] s2, int maxLag) {
+        checkNotEmpty(s1, s2);
+        checkMaxLag(maxLag);
+        int N = s1.length;
+        int M = s2.length;
+
+        double[] result = new double[2 * maxLag + 1];
+        int firstLag = Math.max(-maxLag, -(M - 1));
+        int lastLag = Math.min(maxLag, N - 1);
+
+        double directCost = (double) (2 * maxLag + 1) * Math.min(N, M);
+        if (directCost <= FastConvolution.fftCost(N, M)) {
+            for (int lag = firstLag; lag <= lastLag; lag++) {
+                int from = Math.max(0, -lag);
+                int to = Math.min(M, N - lag);
+                double sum = 0.0;
+                for (int n = from; n < to; n++) {
+                    sum += s1[n + lag] * s2[n];
+                }
+                result[lag + maxLag] = sum;
+            }
+            return result;
+        }
+
+        double[] full = crossCorrelate(s1, s2, Mode.FULL);
+        System.arraycopy(full, firstLag + M - 1, result, firstLag + maxLag, lastLag - firstLag + 1);
+        return result;
+    }
+
+    /**
+     * Autocorrelation, computed as inverse FFT of power spectrum.
+     * @param samples Array of signal's values.
+     * @param mode Range of lags, being symmetric around lag 0.
+     * @return Product of autocorrelation, for lags in order.
+     */
+    public static double[] autocorrelate(double[] samples, Mode mode) {
+        int N = samples.length;
+        double[] oneSided = autocorrelate(samples, N - 1);
+
+        double[] full = new double[2 * N - 1];
+        for (int lag = 0; lag < N; lag++) {
+            full[N - 1 + lag] = oneSided[lag];
+            full[N - 1 - lag] = oneSided[lag];
+        }
+        return switch (mode) {
+            case FULL -> full;
+            case SAME -> slice(full, (N - 1) / 2, N);
+            case VALID -> slice(full, N - 1, 1);
+        };
+    }
+
+    /**
+     * Autocorrelation for non-negative lags, as it is symmetric.
+     * @param samples Array of signal's values.
+     * @param maxLag Highest lag.
+     * @return maxLag + 1 values for lags from 0, zero for lags not shorter than samples.
+     */
+    public static double[] autocorrelate(double[] samples, int maxLag) {
+        checkNotEmpty(samples, samples);
+        checkMaxLag(maxLag);
+        int N = samples.length;
+        double[] result = new double[maxLag + 1];
+        int lastLag = Math.min(maxLag, N - 1);
+
+        if ((double) (lastLag + 1) * N <= FastConvolution.fftCost(N, N) / 2) {
+            for (int lag = 0; lag <= lastLag; lag++) {
+                double sum = 0.0;
+                for (int n = 0; n + lag < N; n++) {
+                    sum += samples[n + lag] * samples[n];
+                }
+                result[lag] = sum;
+            }
+            return result;
+        }
+
+        // zero padding to at least N + lastLag avoids wrap of circular correlation in computed lags
+        int size = 2;
+        while (size < N + lastLag) {
+            size <<= 1;
+        }
+        double[] buffer = new double[size];
+        System.arraycopy(samples, 0, buffer, 0, N);
+
+        int bins = size / 2 + 1;
+        double[] re = new double[bins];
+        double[] im = new double[bins];
+        RealFourierTransform.forward(buffer, re, im);
+        for (int k = 0; k < bins; k++) {
+            re[k] = re[k] * re[k] + im[k] * im[k];
+            im[k] = 0.0;
+        }
+        RealFourierTransform.inverse(re, im, buffer);
+
+        System.arraycopy(buffer, 0, result, 0, lastLag + 1);
+        return result;
+    }
+
+    private static double[] reversed(double[] samples) {
+        double[] result = new double[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            result[i] = samples[samples.length - 1 - i];
+        }
+        return result;
+    }
+
+    private static double[] slice(double[] samples, int from, int length) {
+        double[] result = new double[length];
+        System.arraycopy(samples, from, result, 0, length);
+        return result;
+    }
+
+    private static void checkMaxLag(int maxLag) {
+        if (maxLag < 0) {
+            throw new IllegalArgumentException("Max lag must not be negative");
+        }
+    }
+
+    private static void checkNotEmpty(double[] s1, double[] s2) {
+        if (s1.length == 0 || s2.length == 0) {
+            throw new IllegalArgumentException("Empty samples");
+        }
+    }
+}
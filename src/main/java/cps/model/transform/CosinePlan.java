@@ -0,0 +1,144 @@
+package cps.model.transform;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Orthonormal DCT-II and its inverse DCT-III of given size, computed with Makhoul's algorithm:
+ * samples are reordered, even ones first and odd ones reversed after them, transformed with FFT
+ * and rotated by W^m = exp(-i * PI * m / 2N). Powers of 2 use real FFT of N/2 complex points,
+ * other sizes use cached plan of any size. Rotation and scaling tables are computed once per plan.
+ */
+public final class CosinePlan {
+    @Getter
+    private final int size;
+    private final boolean powerOfTwo;
+    // orthonormal scaling of bin 0 and of remaining bins
+    private final double c0;
+    private final double cm;
+    // cos(PI * m / 2N) and sin(PI * m / 2N)
+    private final double[] cos;
+    private final double[] sin;
+    private final ThreadLocal<double[][]> scratch;
+
+    CosinePlan(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size of transform must be positive: " + size);
+        }
+        this.size = size;
+        this.powerOfTwo = size >= 2 && (size & (size - 1)) == 0;
+        this.c0 = Math.sqrt(1.0 / size);
+        this.cm = Math.sqrt(2.0 / size);
+
+        cos = new double[size];
+        sin = new double[size];
+        for (int m = 0; m < size; m++) {
+            double sigma = Math.PI * m / (2.0 * size);
+            cos[m] = Math.cos(sigma);
+            sin[m] = Math.sin(sigma);
+        }
+
+        int spectrumSize = powerOfTwo ? size / 2 + 1 : size;
+        this.scratch = ThreadLocal.withInitial(() -> new double[][]{
+                new double[size], new double[spectrumSize], new double[spectrumSize]
+        });
+    }
+
+    /**
+     * Orthonormal DCT-II, equal to sum of samples[n] * cos(PI * (2n + 1) * m / 2N) scaled by sqrt(1/N) for m = 0
+     * and by sqrt(2/N) otherwise.
+     * @param samples Samples of plan's size.
+     * @param result Output coefficients of plan's size, may be the same array as samples.
+     */
+    public void forward(double[] samples, double[] result) {
+        checkLength(samples, result);
+        if (size == 1) {
+            result[0] = samples[0];
+            return;
+        }
+        double[][] buffers = scratch.get();
+        double[] v = buffers[0];
+        double[] re = buffers[1];
+        double[] im = buffers[2];
+
+        // 1. even samples in order, odd ones reversed
+        for (int i = 0; i < (size + 1) / 2; i++) {
+            v[i] = samples[2 * i];
+        }
+        for (int i = 0; i < size / 2; i++) {
+            v[size - 1 - i] = samples[2 * i + 1];
+        }
+
+        // 2. spectrum of reordered samples, only bins 0..N/2 are needed
+        if (powerOfTwo) {
+            RealFourierTransform.forward(v, re, im);
+        } else {
+            System.arraycopy(v, 0, re, 0, size);
+            Arrays.fill(im, 0.0);
+            FourierPlanCache.forLength(size).forward(re, im);
+        }
+
+        // 3. C[m] = Re(W^m * V[m]), where V[m] = conj(V[N - m]) for upper half
+        result[0] = re[0] * c0;
+        for (int m = 1; m <= size / 2; m++) {
+            result[m] = (re[m] * cos[m] + im[m] * sin[m]) * cm;
+        }
+        for (int m = size / 2 + 1; m < size; m++) {
+            int k = size - m;
+            result[m] = (re[k] * cos[m] - im[k] * sin[m]) * cm;
+        }
+    }
+
+    /**
+     * Orthonormal DCT-III, inverse of {@link #forward(double[], double[])}.
+     * @param coefficients Coefficients of plan's size.
+     * @param result Output samples of plan's size, may be the same array as coefficients.
+     */
+    public void inverse(double[] coefficients, double[] result) {
+        checkLength(coefficients, result);
+        if (size == 1) {
+            result[0] = coefficients[0];
+            return;
+        }
+        double[][] buffers = scratch.get();
+        double[] v = buffers[0];
+        double[] re = buffers[1];
+        double[] im = buffers[2];
+
+        // 1. V[m] = conj(W^m) * (Y[m] - i * Y[N - m]), Y being coefficients without scaling
+        re[0] = coefficients[0] / c0;
+        im[0] = 0.0;
+        int last = powerOfTwo ? size / 2 : size - 1;
+        for (int m = 1; m <= last; m++) {
+            double a = coefficients[m] / cm;
+            double b = -coefficients[size - m] / cm;
+            re[m] = a * cos[m] - b * sin[m];
+            im[m] = a * sin[m] + b * cos[m];
+        }
+
+        // 2. reordered samples
+        if (powerOfTwo) {
+            RealFourierTransform.inverse(re, im, v);
+        } else {
+            FourierPlanCache.forLength(size).inverse(re, im);
+            for (int n = 0; n < size; n++) {
+                v[n] = re[n] / size;
+            }
+        }
+
+        // 3. undo reordering
+        for (int i = 0; i < (size + 1) / 2; i++) {
+            result[2 * i] = v[i];
+        }
+        for (int i = 0; i < size / 2; i++) {
+            result[2 * i + 1] = v[size - 1 - i];
+        }
+    }
+
+    private void checkLength(double[] input, double[] output) {
+        if (input.length != size || output.length != size) {
+            throw new IllegalArgumentException("Samples size differs from plan size: " + size);
+        }
+    }
+}
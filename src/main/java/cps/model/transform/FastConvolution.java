@@ -0,0 +1,153 @@
+package cps.model.transform;
+
+import java.util.Arrays;
+
+/**
+ * Linear convolution of real samples. Short operands are convolved directly, long ones with FFT,
+ * using overlap-add: longer operand is cut into blocks, each one convolved with cached spectrum
+ * of shorter operand, and overlapping tails of blocks are added.
+ */
+public final class FastConvolution {
+    // below this length of shorter operand direct convolution is always faster
+    private static final int DIRECT_THRESHOLD = 32;
+    // estimated cost of FFT per sample and stage, relative to single multiply-add of direct convolution
+    private static final double FFT_COST = 3.0;
+
+    private FastConvolution() {
+    }
+
+    /**
+     * Convolution choosing direct or FFT algorithm by sizes of operands.
+     * @param signal1 1st signal's values.
+     * @param signal2 2nd signal's values.
+     * @return Product of convolution, of length signal1.length + signal2.length - 1.
+     */
+    public static double[] convolve(double[] signal1, double[] signal2) {
+        checkNotEmpty(signal1, signal2);
+        if (isDirectFaster(signal1.length, signal2.length)) {
+            return direct(signal1, signal2);
+        }
+        return overlapAdd(signal1, signal2);
+    }
+
+    /**
+     * Direct convolution, input-side algorithm of O(N * M) complexity.
+     * Equation: (h * x)(n) = sum {h(k) * x(n - k)}
+     * @param signal1 1st signal's values.
+     * @param signal2 2nd signal's values.
+     * @return Product of convolution.
+     */
+    public static double[] direct(double[] signal1, double[] signal2) {
+        checkNotEmpty(signal1, signal2);
+        double[] product = new double[signal1.length + signal2.length - 1];
+        for (int k = 0; k < signal1.length; k++) {
+            double s1value = signal1[k];
+            for (int i = 0; i < signal2.length; i++) {
+                product[k + i] += s1value * signal2[i];
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Convolution with FFT and overlap-add, of O(N log M) complexity.
+     * @param signal1 1st signal's values.
+     * @param signal2 2nd signal's values.
+     * @return Product of convolution.
+     */
+    public static double[] overlapAdd(double[] signal1, double[] signal2) {
+        checkNotEmpty(signal1, signal2);
+        // convolution is commutative, so shorter operand is used as kernel
+        double[] samples = signal1.length >= signal2.length ? signal1 : signal2;
+        double[] kernel = samples == signal1 ? signal2 : signal1;
+
+        int M = kernel.length;
+        int productSize = samples.length + M - 1;
+        int size = fftSize(M, samples.length);
+        int blockSize = size - M + 1;
+        int bins = size / 2 + 1;
+
+        double[] kernelRe = new double[bins];
+        double[] kernelIm = new double[bins];
+        double[] buffer = new double[size];
+        System.arraycopy(kernel, 0, buffer, 0, M);
+        RealFourierTransform.forward(buffer, kernelRe, kernelIm);
+
+        double[] re = new double[bins];
+        double[] im = new double[bins];
+        double[] product = new double[productSize];
+        for (int start = 0; start < samples.length; start += blockSize) {
+            int length = Math.min(blockSize, samples.length - start);
+            System.arraycopy(samples, start, buffer, 0, length);
+            Arrays.fill(buffer, length, size, 0.0);
+
+            RealFourierTransform.forward(buffer, re, im);
+            for (int k = 0; k < bins; k++) {
+                double r = re[k] * kernelRe[k] - im[k] * kernelIm[k];
+                double i = re[k] * kernelIm[k] + im[k] * kernelRe[k];
+                re[k] = r;
+                im[k] = i;
+            }
+            RealFourierTransform.inverse(re, im, buffer);
+
+            int end = Math.min(productSize, start + length + M - 1);
+            for (int n = start; n < end; n++) {
+                product[n] += buffer[n - start];
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Compares number of multiply-adds of direct convolution with estimated cost of overlap-add.
+     * @param N Length of 1st operand.
+     * @param M Length of 2nd operand.
+     * @return Whether direct convolution is expected to be faster.
+     */
+    public static boolean isDirectFaster(int N, int M) {
+        if (Math.min(N, M) <= DIRECT_THRESHOLD) {
+            return true;
+        }
+        return (double) N * M <= fftCost(N, M);
+    }
+
+    /**
+     * Estimated cost of overlap-add, in multiply-adds of direct convolution.
+     * @param N Length of 1st operand.
+     * @param M Length of 2nd operand.
+     * @return Cost of forward and inverse transform of each block, with spectrum product.
+     */
+    static double fftCost(int N, int M) {
+        int shorter = Math.min(N, M);
+        int longer = Math.max(N, M);
+        int size = fftSize(shorter, longer);
+        long blocks = (longer + size - shorter) / (size - shorter + 1);
+        return blocks * (2 * FFT_COST * size * Integer.numberOfTrailingZeros(size) + 2.0 * size);
+    }
+
+    /**
+     * Size of FFT for overlap-add: about 8 times kernel size, so that transform is not wasted on padding,
+     * or smaller if whole product fits in it.
+     */
+    static int fftSize(int kernelSize, int samplesSize) {
+        int productSize = samplesSize + kernelSize - 1;
+        return Math.max(2, nextPowerOfTwo(Math.min(8L * kernelSize, productSize)));
+    }
+
+    private static int nextPowerOfTwo(long n) {
+        long power = Long.highestOneBit(Math.max(1, n));
+        if (power < n) {
+            power <<= 1;
+        }
+        if (power > 1 << 30) {
+            throw new IllegalArgumentException("Convolution too long: " + n);
+        }
+        return (int) power;
+    }
+
+    private static void checkNotEmpty(double[] signal1, double[] signal2) {
+        if (signal1.length == 0 || signal2.length == 0) {
+            throw new IllegalArgumentException("Empty samples");
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package cps.model.transform;
+
+import lombok.Getter;
+
+/**
+ * Precomputed data for FFT of given size: bit-reversal swaps, twiddle tables and scratch buffers.
+ * Plan is immutable, except for scratch buffers which are kept per thread.
+ */
+public final class FourierPlan {
+    @Getter
+    private final int log2N;
+    @Getter
+    private final int size;
+    private final int[] swaps;
+    private final double[] cos;
+    private final double[] sin;
+    private final ThreadLocal<double[][]> scratch;
+    private volatile double[][] realTwiddles;
+
+    FourierPlan(int log2N) {
+        if (log2N < 0 || log2N > 30) {
+            throw new IllegalArgumentException("log2N out of range: " + log2N);
+        }
+        this.log2N = log2N;
+        this.size = 1 << log2N;
+
+        double[][] twiddles = FourierTransform.createTwiddles(size);
+        this.cos = twiddles[0];
+        this.sin = twiddles[1];
+        this.swaps = createSwaps(size);
+        this.scratch = ThreadLocal.withInitial(() -> new double[][]{new double[size], new double[size]});
+    }
+
+    /**
+     * Forward FFT in place, without normalization.
+     * @param re Real parts, length equal to size of plan.
+     * @param im Imaginary parts, length equal to size of plan.
+     */
+    public void forward(double[] re, double[] im) {
+        transform(re, im, false);
+    }
+
+    /**
+     * Inverse FFT in place, without 1/N normalization.
+     * @param re Real parts, length equal to size of plan.
+     * @param im Imaginary parts, length equal to size of plan.
+     */
+    public void inverse(double[] re, double[] im) {
+        transform(re, im, true);
+    }
+
+    /**
+     * Forward FFT in place of single frame of bigger array, without normalization.
+     * @param re Real parts.
+     * @param im Imaginary parts, same length as re.
+     * @param offset Index of first sample of frame, frame spans size of plan.
+     */
+    public void forward(double[] re, double[] im, int offset) {
+        transform(re, im, offset, false);
+    }
+
+    /**
+     * Inverse FFT in place of single frame of bigger array, without 1/N normalization.
+     * @param re Real parts.
+     * @param im Imaginary parts, same length as re.
+     * @param offset Index of first sample of frame, frame spans size of plan.
+     */
+    public void inverse(double[] re, double[] im, int offset) {
+        transform(re, im, offset, true);
+    }
+
+    /**
+     * Buffers of plan's size owned by calling thread, reused between calls.
+     * @return Array {re, im} of scratch buffers.
+     */
+    public double[][] scratch() {
+        return scratch.get();
+    }
+
+    double[] cos() {
+        return cos;
+    }
+
+    double[] sin() {
+        return sin;
+    }
+
+    /**
+     * Twiddles used to split spectrum of real transform of size 2N, computed on first use.
+     * @return N values of cos(PI * k / N).
+     */
+    double[] realCos() {
+        return realTwiddles()[0];
+    }
+
+    /**
+     * @return N values of sin(PI * k / N).
+     */
+    double[] realSin() {
+        return realTwiddles()[1];
+    }
+
+    private double[][] realTwiddles() {
+        double[][] twiddles = realTwiddles;
+        if (twiddles == null) {
+            synchronized (this) {
+                twiddles = realTwiddles;
+                if (twiddles == null) {
+                    twiddles = FourierTransform.createTwiddles(2 * size);
+                    realTwiddles = twiddles;
+                }
+            }
+        }
+        return twiddles;
+    }
+
+    private void transform(double[] re, double[] im, boolean inverse) {
+        if (re.length != size || im.length != size) {
+            throw new IllegalArgumentException("Samples size differs from plan size: " + size);
+        }
+        permute(re, im);
+        FourierTransform.butterflies(re, im, cos, sin, inverse);
+    }
+
+    private void transform(double[] re, double[] im, int offset, boolean inverse) {
+        if (re.length != im.length || offset < 0 || offset > re.length - size) {
+            throw new IllegalArgumentException("Frame at " + offset + " of size " + size + " out of samples");
+        }
+        for (int s = 0; s < swaps.length; s += 2) {
+            int i = offset + swaps[s];
+            int j = offset + swaps[s + 1];
+
+            double temp = re[i];
+            re[i] = re[j];
+            re[j] = temp;
+
+            temp = im[i];
+            im[i] = im[j];
+            im[j] = temp;
+        }
+        FourierTransform.butterflies(re, im, cos, sin, inverse, offset, offset + size);
+    }
+
+    /**
+     * Sorts samples in bit-reversed order using precomputed swaps.
+     */
+    void permute(double[] re, double[] im) {
+        permute(re, im, 0, swapCount());
+    }
+
+    /**
+     * Applies swaps in range [from, to). Swaps are disjoint, so ranges may be applied concurrently.
+     */
+    void permute(double[] re, double[] im, int from, int to) {
+        for (int s = 2 * from; s < 2 * to; s += 2) {
+            int i = swaps[s];
+            int j = swaps[s + 1];
+
+            double temp = re[i];
+            re[i] = re[j];
+            re[j] = temp;
+
+            temp = im[i];
+            im[i] = im[j];
+            im[j] = temp;
+        }
+    }
+
+    int swapCount() {
+        return swaps.length / 2;
+    }
+
+    private static int[] createSwaps(int N) {
+        int count = 0;
+        int[] reversed = new int[N];
+        for (int i = 0, j = 0; i < N; i++) {
+            reversed[i] = j;
+            if (i < j) {
+                count++;
+            }
+            int bit = N >> 1;
+            while ((j & bit) != 0) {
+                j ^= bit;
+                bit >>= 1;
+            }
+            j |= bit;
+        }
+
+        int[] swaps = new int[count * 2];
+        int s = 0;
+        for (int i = 0; i < N; i++) {
+            if (i < reversed[i]) {
+                swaps[s++] = i;
+                swaps[s++] = reversed[i];
+            }
+        }
+        return swaps;
+    }
+}
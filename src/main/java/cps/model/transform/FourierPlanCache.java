@@ -0,0 +1,103 @@
+package cps.model.transform;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, thread-safe caches of FFT plans, keyed by log2N for powers of 2 and by size for others and for cosine transforms. Least recently used plan is dropped first.
+ */
+public final class FourierPlanCache {
+    private static final int MAX_PLANS = 12;
+
+    private static final Map<Integer, FourierPlan> plans = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, FourierPlan> eldest) {
+            return size() > MAX_PLANS;
+        }
+    };
+
+    private static final Map<Integer, GeneralFourierPlan> generalPlans = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, GeneralFourierPlan> eldest) {
+            return size() > MAX_PLANS;
+        }
+    };
+
+    private static final Map<Integer, CosinePlan> cosinePlans = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CosinePlan> eldest) {
+            return size() > MAX_PLANS;
+        }
+    };
+
+    private FourierPlanCache() {
+    }
+
+    /**
+     * Returns cached plan or creates a new one.
+     * @param log2N Number of bits.
+     * @return Plan for transform of size 2^log2N.
+     */
+    public static synchronized FourierPlan get(int log2N) {
+        return plans.computeIfAbsent(log2N, FourierPlan::new);
+    }
+
+    /**
+     * Returns plan for given size.
+     * @param N Size of transform, power of 2.
+     * @return Plan for transform of size N.
+     */
+    public static FourierPlan forSize(int N) {
+        if (N <= 0 || (N & (N - 1)) != 0) {
+            throw new IllegalArgumentException("Samples must be a power of 2");
+        }
+        return get(Integer.numberOfTrailingZeros(N));
+    }
+
+    /**
+     * Returns cached plan for transform of any size or creates a new one.
+     * @param N Size of transform.
+     * @return Plan for transform of size N.
+     */
+    public static GeneralFourierPlan forLength(int N) {
+        synchronized (generalPlans) {
+            GeneralFourierPlan plan = generalPlans.get(N);
+            if (plan != null) {
+                return plan;
+            }
+        }
+        // created outside of lock, as Bluestein plan requests power of 2 plan
+        GeneralFourierPlan plan = new GeneralFourierPlan(N);
+        synchronized (generalPlans) {
+            return generalPlans.computeIfAbsent(N, key -> plan);
+        }
+    }
+
+    /**
+     * Returns cached plan of cosine transform or creates a new one.
+     * @param N Size of transform.
+     * @return Plan for DCT-II and DCT-III of size N.
+     */
+    public static CosinePlan forCosine(int N) {
+        synchronized (cosinePlans) {
+            CosinePlan plan = cosinePlans.get(N);
+            if (plan != null) {
+                return plan;
+            }
+        }
+        CosinePlan plan = new CosinePlan(N);
+        synchronized (cosinePlans) {
+            return cosinePlans.computeIfAbsent(N, key -> plan);
+        }
+    }
+
+    public static synchronized void clear() {
+        plans.clear();
+        synchronized (generalPlans) {
+            generalPlans.clear();
+        }
+        synchronized (cosinePlans) {
+            cosinePlans.clear();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package cps.model.transform;
+
+/**
+ * Iterative, in-place FFT on split arrays of real and imaginary parts.
+ * Butterflies are grouped by two stages into radix-4 ones, with a single radix-2 stage
+ * when log2N is odd. Twiddle factors are read from precomputed tables.
+ */
+public final class FourierTransform {
+
+    private FourierTransform() {
+    }
+
+    /**
+     * Creates twiddle tables for transform of given size.
+     * @param N Size of transform, power of 2.
+     * @return Array {cos, sin} of N/2 values of cos(2 * PI * k / N) and sin(2 * PI * k / N).
+     */
+    public static double[][] createTwiddles(int N) {
+        int half = Math.max(1, N / 2);
+        double[] cos = new double[half];
+        double[] sin = new double[half];
+        for (int k = 0; k < half; k++) {
+            double omega = 2 * Math.PI * k / N;
+            cos[k] = Math.cos(omega);
+            sin[k] = Math.sin(omega);
+        }
+        return new double[][]{cos, sin};
+    }
+
+    /**
+     * Forward FFT of any size with cached plan, without normalization. Samples are replaced by transformed ones.
+     * Powers of 2 from {@link ParallelFourierTransform#PARALLEL_THRESHOLD} are computed in parallel.
+     * @param re Real parts.
+     * @param im Imaginary parts, same length as re.
+     */
+    public static void fft(double[] re, double[] im) {
+        checkLength(re, im);
+        if (isParallel(re.length)) {
+            ParallelFourierTransform.fft(re, im);
+            return;
+        }
+        FourierPlanCache.forLength(re.length).forward(re, im);
+    }
+
+    /**
+     * Inverse FFT of any size with cached plan, without 1/N normalization. Samples are replaced by transformed ones.
+     * @param re Real parts.
+     * @param im Imaginary parts, same length as re.
+     */
+    public static void ifft(double[] re, double[] im) {
+        checkLength(re, im);
+        if (isParallel(re.length)) {
+            ParallelFourierTransform.ifft(re, im);
+            return;
+        }
+        FourierPlanCache.forLength(re.length).inverse(re, im);
+    }
+
+    private static boolean isParallel(int N) {
+        return N >= ParallelFourierTransform.PARALLEL_THRESHOLD && (N & (N - 1)) == 0;
+    }
+
+    /**
+     * Forward FFT, without normalization. Samples are replaced by transformed ones.
+     * @param re Real parts, length being power of 2.
+     * @param im Imaginary parts, same length as re.
+     * @param cos Cosine twiddle table of size N/2.
+     * @param sin Sine twiddle table of size N/2.
+     */
+    public static void fft(double[] re, double[] im, double[] cos, double[] sin) {
+        checkSize(re, im);
+        bitReverse(re, im);
+        butterflies(re, im, cos, sin, false);
+    }
+
+    /**
+     * Inverse FFT, without 1/N normalization. Samples are replaced by transformed ones.
+     * @param re Real parts, length being power of 2.
+     * @param im Imaginary parts, same length as re.
+     * @param cos Cosine twiddle table of size N/2.
+     * @param sin Sine twiddle table of size N/2.
+     */
+    public static void ifft(double[] re, double[] im, double[] cos, double[] sin) {
+        checkSize(re, im);
+        bitReverse(re, im);
+        butterflies(re, im, cos, sin, true);
+    }
+
+    /**
+     * Butterfly stages on samples already sorted in bit-reversed order.
+     * @param re Real parts.
+     * @param im Imaginary parts.
+     * @param cos Cosine twiddle table of size N/2 or of any bigger transform.
+     * @param sin Sine twiddle table, same size as cos.
+     * @param inverse Whether twiddles are conjugated.
+     */
+    static void butterflies(double[] re, double[] im, double[] cos, double[] sin, boolean inverse) {
+        butterflies(re, im, cos, sin, inverse, 0, re.length);
+    }
+
+    /**
+     * Butterfly stages on frame [from, to) of samples, frame being sorted in bit-reversed order.
+     */
+    static void butterflies(double[] re, double[] im, double[] cos, double[] sin, boolean inverse, int from, int to) {
+        int N = to - from;
+        if (N < 2) {
+            return;
+        }
+        double sign = inverse ? 1.0 : -1.0;
+
+        int quarter = 1;
+        if (hasRadix2Stage(N)) {
+            radix2Stage(re, im, from, to);
+            quarter = 2;
+        }
+        for (; quarter < N; quarter <<= 2) {
+            radix4Stage(re, im, cos, sin, sign, quarter, from, to);
+        }
+    }
+
+    /**
+     * @return Whether log2N is odd, so stages start with single radix-2 one.
+     */
+    static boolean hasRadix2Stage(int N) {
+        return (Integer.numberOfTrailingZeros(N) & 1) == 1;
+    }
+
+    /**
+     * Radix-2 stage of size 2 on samples in range [from, to), all twiddles equal 1.
+     */
+    static void radix2Stage(double[] re, double[] im, int from, int to) {
+        for (int k = from; k < to; k += 2) {
+            double r = re[k + 1];
+            double i = im[k + 1];
+            re[k + 1] = re[k] - r;
+            im[k + 1] = im[k] - i;
+            re[k] += r;
+            im[k] += i;
+        }
+    }
+
+    /**
+     * Radix-4 stage on blocks of size 4 * quarter lying in range [from, to).
+     */
+    static void radix4Stage(double[] re, double[] im, double[] cos, double[] sin, double sign, int quarter, int from, int to) {
+        int size = quarter << 2;
+        for (int k = from; k < to; k += size) {
+            radix4Block(re, im, cos, sin, sign, quarter, k, 0, quarter);
+        }
+    }
+
+    /**
+     * Radix-4 butterflies j in [jFrom, jTo) of single block of size 4 * quarter.
+     * Twiddle W^j of block is read at index j * (2 * cos.length) / size.
+     */
+    static void radix4Block(double[] re, double[] im, double[] cos, double[] sin, double sign,
+                            int quarter, int blockStart, int jFrom, int jTo) {
+        int stride = (cos.length << 1) / (quarter << 2);
+        for (int j = jFrom; j < jTo; j++) {
+            int i0 = blockStart + j;
+            int i1 = i0 + quarter;
+            int i2 = i1 + quarter;
+            int i3 = i2 + quarter;
+
+            int t1 = j * stride;
+            int t2 = t1 << 1;
+            int t3 = t1 + t2;
+
+            double w1r = cos[t1];
+            double w1i = sign * sin[t1];
+            double w2r = cos[t2];
+            double w2i = sign * sin[t2];
+            double w3r;
+            double w3i;
+            if (t3 < cos.length) {
+                w3r = cos[t3];
+                w3i = sign * sin[t3];
+            } else {
+                // W^(k + N/2) = -W^k
+                w3r = -cos[t3 - cos.length];
+                w3i = -sign * sin[t3 - cos.length];
+            }
+
+            // odd quarter (i2) is multiplied by W^j, second one (i1) by W^2j and last one by W^3j
+            double x1r = re[i2] * w1r - im[i2] * w1i;
+            double x1i = re[i2] * w1i + im[i2] * w1r;
+            double x2r = re[i1] * w2r - im[i1] * w2i;
+            double x2i = re[i1] * w2i + im[i1] * w2r;
+            double x3r = re[i3] * w3r - im[i3] * w3i;
+            double x3i = re[i3] * w3i + im[i3] * w3r;
+
+            double ar = re[i0] + x2r;
+            double ai = im[i0] + x2i;
+            double br = re[i0] - x2r;
+            double bi = im[i0] - x2i;
+            double cr = x1r + x3r;
+            double ci = x1i + x3i;
+            double dr = x1r - x3r;
+            double di = x1i - x3i;
+
+            re[i0] = ar + cr;
+            im[i0] = ai + ci;
+            re[i2] = ar - cr;
+            im[i2] = ai - ci;
+            // b -/+ i * d
+            re[i1] = br - sign * di;
+            im[i1] = bi + sign * dr;
+            re[i3] = br + sign * di;
+            im[i3] = bi - sign * dr;
+        }
+    }
+
+    /**
+     * Sorts samples by symmetric flip of index's bits, without lookup table.
+     * @param re Real parts.
+     * @param im Imaginary parts.
+     */
+    static void bitReverse(double[] re, double[] im) {
+        int N = re.length;
+        for (int i = 0, j = 0; i < N; i++) {
+            if (i < j) {
+                swap(re, i, j);
+                swap(im, i, j);
+            }
+            int bit = N >> 1;
+            while ((j & bit) != 0) {
+                j ^= bit;
+                bit >>= 1;
+            }
+            j |= bit;
+        }
+    }
+
+    static void checkLength(double[] re, double[] im) {
+        if (re.length != im.length) {
+            throw new IllegalArgumentException("Real and imaginary parts differ in length");
+        }
+        if (re.length == 0) {
+            throw new IllegalArgumentException("Empty samples");
+        }
+    }
+
+    static void checkSize(double[] re, double[] im) {
+        checkLength(re, im);
+        int N = re.length;
+        if ((N & (N - 1)) != 0) {
+            throw new IllegalArgumentException("Samples must be a power of 2");
+        }
+    }
+
+    private static void swap(double[] array, int i, int j) {
+        double temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+}
@@ -0,0 +1,431 @@
+package cps.model.transform;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * FFT plan for transform of any size. Powers of 2 are delegated to {@link FourierPlan},
+ * sizes being product of 2, 3 and 5 use mixed-radix Stockham algorithm and remaining ones
+ * use Bluestein's chirp-z algorithm, with convolution computed by power of 2 FFT.
+ */
+public final class GeneralFourierPlan {
+
+    public enum Algorithm {
+        RADIX_2,
+        MIXED_RADIX,
+        BLUESTEIN
+    }
+
+    private static final double C3 = -0.5;
+    private static final double S3 = -Math.sin(2 * Math.PI / 3);
+    private static final double C5_1 = Math.cos(2 * Math.PI / 5);
+    private static final double C5_2 = Math.cos(4 * Math.PI / 5);
+    private static final double S5_1 = -Math.sin(2 * Math.PI / 5);
+    private static final double S5_2 = -Math.sin(4 * Math.PI / 5);
+
+    @Getter
+    private final int size;
+    @Getter
+    private final Algorithm algorithm;
+
+    // mixed radix
+    private final int[] factors;
+    private final double[] cos;
+    private final double[] sin;
+
+    // Bluestein
+    private final FourierPlan convolutionPlan;
+    private final double[] chirpRe;
+    private final double[] chirpIm;
+    private final double[] kernelRe;
+    private final double[] kernelIm;
+
+    private final ThreadLocal<double[][]> scratch;
+
+    GeneralFourierPlan(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size of transform must be positive: " + size);
+        }
+        this.size = size;
+
+        int[] smallFactors = factorize(size);
+        if ((size & (size - 1)) == 0) {
+            algorithm = Algorithm.RADIX_2;
+        } else if (smallFactors != null) {
+            algorithm = Algorithm.MIXED_RADIX;
+        } else {
+            algorithm = Algorithm.BLUESTEIN;
+        }
+
+        int bufferSize = size;
+        if (algorithm == Algorithm.MIXED_RADIX) {
+            factors = smallFactors;
+            double[][] twiddles = createTwiddles(size);
+            cos = twiddles[0];
+            sin = twiddles[1];
+        } else {
+            factors = null;
+            cos = null;
+            sin = null;
+        }
+
+        if (algorithm == Algorithm.BLUESTEIN) {
+            int convolutionSize = Integer.highestOneBit(2 * size - 1);
+            if (convolutionSize < 2 * size - 1) {
+                convolutionSize <<= 1;
+            }
+            convolutionPlan = FourierPlanCache.forSize(convolutionSize);
+            bufferSize = convolutionSize;
+
+            // chirp w[n] = exp(-i * PI * n^2 / N), n^2 taken modulo 2N to keep precision
+            chirpRe = new double[size];
+            chirpIm = new double[size];
+            for (int n = 0; n < size; n++) {
+                long square = (long) n * n % (2L * size);
+                double omega = Math.PI * square / size;
+                chirpRe[n] = Math.cos(omega);
+                chirpIm[n] = -Math.sin(omega);
+            }
+
+            // kernel b[m] = conj(w[m]) = conj(w[-m]), transformed once
+            kernelRe = new double[convolutionSize];
+            kernelIm = new double[convolutionSize];
+            kernelRe[0] = chirpRe[0];
+            kernelIm[0] = -chirpIm[0];
+            for (int n = 1; n < size; n++) {
+                kernelRe[n] = chirpRe[n];
+                kernelIm[n] = -chirpIm[n];
+                kernelRe[convolutionSize - n] = chirpRe[n];
+                kernelIm[convolutionSize - n] = -chirpIm[n];
+            }
+            convolutionPlan.forward(kernelRe, kernelIm);
+        } else {
+            convolutionPlan = null;
+            chirpRe = null;
+            chirpIm = null;
+            kernelRe = null;
+            kernelIm = null;
+        }
+
+        int length = bufferSize;
+        scratch = algorithm == Algorithm.RADIX_2 ? null
+                : ThreadLocal.withInitial(() -> new double[][]{new double[length], new double[length]});
+    }
+
+    /**
+     * Forward FFT in place, without normalization.
+     * @param re Real parts, length equal to size of plan.
+     * @param im Imaginary parts, length equal to size of plan.
+     */
+    public void forward(double[] re, double[] im) {
+        if (re.length != size || im.length != size) {
+            throw new IllegalArgumentException("Samples size differs from plan size: " + size);
+        }
+        switch (algorithm) {
+            case RADIX_2 -> FourierPlanCache.forSize(size).forward(re, im);
+            case MIXED_RADIX -> mixedRadix(re, im);
+            case BLUESTEIN -> bluestein(re, im);
+        }
+    }
+
+    /**
+     * Inverse FFT in place, without 1/N normalization. Computed as conj(FFT(conj(x))).
+     * @param re Real parts, length equal to size of plan.
+     * @param im Imaginary parts, length equal to size of plan.
+     */
+    public void inverse(double[] re, double[] im) {
+        if (algorithm == Algorithm.RADIX_2) {
+            if (re.length != size || im.length != size) {
+                throw new IllegalArgumentException("Samples size differs from plan size: " + size);
+            }
+            FourierPlanCache.forSize(size).inverse(re, im);
+            return;
+        }
+        negate(im);
+        forward(re, im);
+        negate(im);
+    }
+
+    /**
+     * Stockham autosort FFT. Before each stage, array holds DFTs of length l of r = N / l
+     * subsequences with stride r, value q of subsequence k being stored at index q * r + k.
+     */
+    private void mixedRadix(double[] re, double[] im) {
+        double[][] buffers = scratch.get();
+        double[] xr = re;
+        double[] xi = im;
+        double[] yr = buffers[0];
+        double[] yi = buffers[1];
+
+        int l = 1;
+        int r = size;
+        for (int p : factors) {
+            int rNext = r / p;
+            for (int q0 = 0; q0 < l; q0++) {
+                int twiddle = q0 * rNext;
+                switch (p) {
+                    case 2 -> radix2(xr, xi, yr, yi, q0, l, r, rNext, twiddle);
+                    case 3 -> radix3(xr, xi, yr, yi, q0, l, r, rNext, twiddle);
+                    case 4 -> radix4(xr, xi, yr, yi, q0, l, r, rNext, twiddle);
+                    case 5 -> radix5(xr, xi, yr, yi, q0, l, r, rNext, twiddle);
+                    default -> throw new IllegalStateException("Unexpected factor: " + p);
+                }
+            }
+
+            double[] temp = xr;
+            xr = yr;
+            yr = temp;
+            temp = xi;
+            xi = yi;
+            yi = temp;
+            l *= p;
+            r = rNext;
+        }
+
+        if (xr != re) {
+            System.arraycopy(xr, 0, re, 0, size);
+            System.arraycopy(xi, 0, im, 0, size);
+        }
+    }
+
+    private void radix2(double[] xr, double[] xi, double[] yr, double[] yi, int q0, int l, int r, int rNext, int twiddle) {
+        double w1r = cos[twiddle];
+        double w1i = -sin[twiddle];
+        int in = q0 * r;
+        int out = q0 * rNext;
+        int outStride = l * rNext;
+        for (int k = 0; k < rNext; k++) {
+            int i0 = in + k;
+            int i1 = i0 + rNext;
+            double t1r = xr[i1] * w1r - xi[i1] * w1i;
+            double t1i = xr[i1] * w1i + xi[i1] * w1r;
+
+            yr[out + k] = xr[i0] + t1r;
+            yi[out + k] = xi[i0] + t1i;
+            yr[out + outStride + k] = xr[i0] - t1r;
+            yi[out + outStride + k] = xi[i0] - t1i;
+        }
+    }
+
+    private void radix3(double[] xr, double[] xi, double[] yr, double[] yi, int q0, int l, int r, int rNext, int twiddle) {
+        double w1r = cos[twiddle];
+        double w1i = -sin[twiddle];
+        double w2r = cos[2 * twiddle];
+        double w2i = -sin[2 * twiddle];
+        int in = q0 * r;
+        int out = q0 * rNext;
+        int outStride = l * rNext;
+        for (int k = 0; k < rNext; k++) {
+            int i0 = in + k;
+            int i1 = i0 + rNext;
+            int i2 = i1 + rNext;
+            double t1r = xr[i1] * w1r - xi[i1] * w1i;
+            double t1i = xr[i1] * w1i + xi[i1] * w1r;
+            double t2r = xr[i2] * w2r - xi[i2] * w2i;
+            double t2i = xr[i2] * w2i + xi[i2] * w2r;
+
+            double sumR = t1r + t2r;
+            double sumI = t1i + t2i;
+            double baseR = xr[i0] + C3 * sumR;
+            double baseI = xi[i0] + C3 * sumI;
+            // i * S3 * (t1 - t2)
+            double rotR = -S3 * (t1i - t2i);
+            double rotI = S3 * (t1r - t2r);
+
+            int o = out + k;
+            yr[o] = xr[i0] + sumR;
+            yi[o] = xi[i0] + sumI;
+            yr[o + outStride] = baseR + rotR;
+            yi[o + outStride] = baseI + rotI;
+            yr[o + 2 * outStride] = baseR - rotR;
+            yi[o + 2 * outStride] = baseI - rotI;
+        }
+    }
+
+    private void radix4(double[] xr, double[] xi, double[] yr, double[] yi, int q0, int l, int r, int rNext, int twiddle) {
+        double w1r = cos[twiddle];
+        double w1i = -sin[twiddle];
+        double w2r = cos[2 * twiddle];
+        double w2i = -sin[2 * twiddle];
+        double w3r = cos[3 * twiddle];
+        double w3i = -sin[3 * twiddle];
+        int in = q0 * r;
+        int out = q0 * rNext;
+        int outStride = l * rNext;
+        for (int k = 0; k < rNext; k++) {
+            int i0 = in + k;
+            int i1 = i0 + rNext;
+            int i2 = i1 + rNext;
+            int i3 = i2 + rNext;
+            double t1r = xr[i1] * w1r - xi[i1] * w1i;
+            double t1i = xr[i1] * w1i + xi[i1] * w1r;
+            double t2r = xr[i2] * w2r - xi[i2] * w2i;
+            double t2i = xr[i2] * w2i + xi[i2] * w2r;
+            double t3r = xr[i3] * w3r - xi[i3] * w3i;
+            double t3i = xr[i3] * w3i + xi[i3] * w3r;
+
+            double ar = xr[i0] + t2r;
+            double ai = xi[i0] + t2i;
+            double br = xr[i0] - t2r;
+            double bi = xi[i0] - t2i;
+            double cr = t1r + t3r;
+            double ci = t1i + t3i;
+            double dr = t1r - t3r;
+            double di = t1i - t3i;
+
+            int o = out + k;
+            yr[o] = ar + cr;
+            yi[o] = ai + ci;
+            // b - i * d
+            yr[o + outStride] = br + di;
+            yi[o + outStride] = bi - dr;
+            yr[o + 2 * outStride] = ar - cr;
+            yi[o + 2 * outStride] = ai - ci;
+            // b + i * d
+            yr[o + 3 * outStride] = br - di;
+            yi[o + 3 * outStride] = bi + dr;
+        }
+    }
+
+    private void radix5(double[] xr, double[] xi, double[] yr, double[] yi, int q0, int l, int r, int rNext, int twiddle) {
+        double w1r = cos[twiddle];
+        double w1i = -sin[twiddle];
+        double w2r = cos[2 * twiddle];
+        double w2i = -sin[2 * twiddle];
+        double w3r = cos[3 * twiddle];
+        double w3i = -sin[3 * twiddle];
+        double w4r = cos[4 * twiddle];
+        double w4i = -sin[4 * twiddle];
+        int in = q0 * r;
+        int out = q0 * rNext;
+        int outStride = l * rNext;
+        for (int k = 0; k < rNext; k++) {
+            int i0 = in + k;
+            int i1 = i0 + rNext;
+            int i2 = i1 + rNext;
+            int i3 = i2 + rNext;
+            int i4 = i3 + rNext;
+            double t1r = xr[i1] * w1r - xi[i1] * w1i;
+            double t1i = xr[i1] * w1i + xi[i1] * w1r;
+            double t2r = xr[i2] * w2r - xi[i2] * w2i;
+            double t2i = xr[i2] * w2i + xi[i2] * w2r;
+            double t3r = xr[i3] * w3r - xi[i3] * w3i;
+            double t3i = xr[i3] * w3i + xi[i3] * w3r;
+            double t4r = xr[i4] * w4r - xi[i4] * w4i;
+            double t4i = xr[i4] * w4i + xi[i4] * w4r;
+
+            double a1r = t1r + t4r;
+            double a1i = t1i + t4i;
+            double b1r = t1r - t4r;
+            double b1i = t1i - t4i;
+            double a2r = t2r + t3r;
+            double a2i = t2i + t3i;
+            double b2r = t2r - t3r;
+            double b2i = t2i - t3i;
+
+            double x0r = xr[i0];
+            double x0i = xi[i0];
+            double c1r = x0r + C5_1 * a1r + C5_2 * a2r;
+            double c1i = x0i + C5_1 * a1i + C5_2 * a2i;
+            double c2r = x0r + C5_2 * a1r + C5_1 * a2r;
+            double c2i = x0i + C5_2 * a1i + C5_1 * a2i;
+            // i * (S1 * b1 + S2 * b2) and i * (S2 * b1 - S1 * b2)
+            double s1r = -(S5_1 * b1i + S5_2 * b2i);
+            double s1i = S5_1 * b1r + S5_2 * b2r;
+            double s2r = -(S5_2 * b1i - S5_1 * b2i);
+            double s2i = S5_2 * b1r - S5_1 * b2r;
+
+            int o = out + k;
+            yr[o] = x0r + a1r + a2r;
+            yi[o] = x0i + a1i + a2i;
+            yr[o + outStride] = c1r + s1r;
+            yi[o + outStride] = c1i + s1i;
+            yr[o + 2 * outStride] = c2r + s2r;
+            yi[o + 2 * outStride] = c2i + s2i;
+            yr[o + 3 * outStride] = c2r - s2r;
+            yi[o + 3 * outStride] = c2i - s2i;
+            yr[o + 4 * outStride] = c1r - s1r;
+            yi[o + 4 * outStride] = c1i - s1i;
+        }
+    }
+
+    /**
+     * X[k] = w[k] * sum(x[n] * w[n] * conj(w[k - n])), convolution computed by power of 2 FFT.
+     */
+    private void bluestein(double[] re, double[] im) {
+        double[][] buffers = scratch.get();
+        double[] ar = buffers[0];
+        double[] ai = buffers[1];
+        int M = ar.length;
+
+        for (int n = 0; n < size; n++) {
+            ar[n] = re[n] * chirpRe[n] - im[n] * chirpIm[n];
+            ai[n] = re[n] * chirpIm[n] + im[n] * chirpRe[n];
+        }
+        Arrays.fill(ar, size, M, 0.0);
+        Arrays.fill(ai, size, M, 0.0);
+
+        convolutionPlan.forward(ar, ai);
+        for (int k = 0; k < M; k++) {
+            double r = ar[k] * kernelRe[k] - ai[k] * kernelIm[k];
+            double i = ar[k] * kernelIm[k] + ai[k] * kernelRe[k];
+            ar[k] = r;
+            ai[k] = i;
+        }
+        convolutionPlan.inverse(ar, ai);
+
+        double scale = 1.0 / M;
+        for (int k = 0; k < size; k++) {
+            double r = ar[k] * scale;
+            double i = ai[k] * scale;
+            re[k] = r * chirpRe[k] - i * chirpIm[k];
+            im[k] = r * chirpIm[k] + i * chirpRe[k];
+        }
+    }
+
+    /**
+     * Full twiddle table, N values of cos(2 * PI * k / N) and sin(2 * PI * k / N).
+     */
+    private static double[][] createTwiddles(int N) {
+        double[] cos = new double[N];
+        double[] sin = new double[N];
+        for (int k = 0; k < N; k++) {
+            double omega = 2 * Math.PI * k / N;
+            cos[k] = Math.cos(omega);
+            sin[k] = Math.sin(omega);
+        }
+        return new double[][]{cos, sin};
+    }
+
+    private static void negate(double[] array) {
+        for (int i = 0; i < array.length; i++) {
+            array[i] = -array[i];
+        }
+    }
+
+    /**
+     * Splits size into factors 4, 2, 3 and 5.
+     * @return Factors or null, when size has other prime factor.
+     */
+    private static int[] factorize(int size) {
+        List<Integer> result = new ArrayList<>();
+        int rest = size;
+        while (rest % 4 == 0) {
+            result.add(4);
+            rest /= 4;
+        }
+        for (int p : new int[]{2, 3, 5}) {
+            while (rest % p == 0) {
+                result.add(p);
+                rest /= p;
+            }
+        }
+        if (rest != 1) {
+            return null;
+        }
+        return result.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
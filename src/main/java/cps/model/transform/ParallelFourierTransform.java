@@ -0,0 +1,95 @@
+package cps.model.transform;
+
+import java.util.stream.IntStream;
+
+/**
+ * Parallel FFT for large powers of 2, run on common {@link java.util.concurrent.ForkJoinPool}.
+ * Stages up to size of {@value #LOCAL_SIZE} samples are computed per block, as blocks are
+ * independent and fit in cache. Remaining stages are split into chunks of butterflies,
+ * with all chunks of one stage finished before next stage starts.
+ * Transforms smaller than {@value #PARALLEL_THRESHOLD} samples are computed sequentially.
+ */
+public final class ParallelFourierTransform {
+    public static final int PARALLEL_THRESHOLD = 1 << 20;
+    private static final int LOCAL_SIZE = 1 << 14;
+    private static final int CHUNK_SIZE = 1 << 12;
+
+    private ParallelFourierTransform() {
+    }
+
+    /**
+     * Forward FFT in place, without normalization.
+     * @param re Real parts, length being power of 2.
+     * @param im Imaginary parts, same length as re.
+     */
+    public static void fft(double[] re, double[] im) {
+        transform(re, im, false);
+    }
+
+    /**
+     * Inverse FFT in place, without 1/N normalization.
+     * @param re Real parts, length being power of 2.
+     * @param im Imaginary parts, same length as re.
+     */
+    public static void ifft(double[] re, double[] im) {
+        transform(re, im, true);
+    }
+
+    private static void transform(double[] re, double[] im, boolean inverse) {
+        FourierTransform.checkSize(re, im);
+        int N = re.length;
+        FourierPlan plan = FourierPlanCache.forSize(N);
+
+        if (N < PARALLEL_THRESHOLD) {
+            if (inverse) {
+                plan.inverse(re, im);
+            } else {
+                plan.forward(re, im);
+            }
+            return;
+        }
+
+        double[] cos = plan.cos();
+        double[] sin = plan.sin();
+        double sign = inverse ? 1.0 : -1.0;
+        boolean radix2 = FourierTransform.hasRadix2Stage(N);
+
+        // 1. bit-reversal permutation, swaps are disjoint
+        int swapCount = plan.swapCount();
+        int swapChunks = (swapCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, swapChunks).parallel().forEach(chunk -> {
+            int from = chunk * CHUNK_SIZE;
+            plan.permute(re, im, from, Math.min(swapCount, from + CHUNK_SIZE));
+        });
+
+        // 2. stages inside independent blocks, block size ends on radix-4 stage
+        int localSize = radix2 ? LOCAL_SIZE << 1 : LOCAL_SIZE;
+        IntStream.range(0, N / localSize).parallel().forEach(block -> {
+            int from = block * localSize;
+            int to = from + localSize;
+            int quarter = 1;
+            if (radix2) {
+                FourierTransform.radix2Stage(re, im, from, to);
+                quarter = 2;
+            }
+            for (; quarter < localSize; quarter <<= 2) {
+                FourierTransform.radix4Stage(re, im, cos, sin, sign, quarter, from, to);
+            }
+        });
+
+        // 3. remaining stages, chunks of butterflies of each block
+        for (int quarter = localSize; quarter < N; quarter <<= 2) {
+            int size = quarter << 2;
+            int stageQuarter = quarter;
+            int chunksPerBlock = Math.max(1, quarter / CHUNK_SIZE);
+            int chunkSize = quarter / chunksPerBlock;
+            int blocks = N / size;
+
+            IntStream.range(0, blocks * chunksPerBlock).parallel().forEach(task -> {
+                int blockStart = (task / chunksPerBlock) * size;
+                int jFrom = (task % chunksPerBlock) * chunkSize;
+                FourierTransform.radix4Block(re, im, cos, sin, sign, stageQuarter, blockStart, jFrom, jFrom + chunkSize);
+            });
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package cps.model.transform;
+
+/**
+ * FFT of real samples. N real samples are packed as N/2 complex ones, z[n] = x[2n] + i * x[2n + 1],
+ * transformed with N/2-point FFT and split into spectra of even and odd samples.
+ * Only non-redundant half of spectrum, N/2 + 1 bins, is produced.
+ */
+public final class RealFourierTransform {
+
+    private RealFourierTransform() {
+    }
+
+    /**
+     * Forward FFT of real samples, without normalization.
+     * @param samples Real samples, length being power of 2, at least 2.
+     * @param re Real parts of bins 0..N/2, length at least N/2 + 1.
+     * @param im Imaginary parts of bins 0..N/2, length at least N/2 + 1.
+     */
+    public static void forward(double[] samples, double[] re, double[] im) {
+        int N = samples.length;
+        checkSize(N);
+        int M = N >> 1;
+
+        FourierPlan plan = FourierPlanCache.forSize(M);
+        double[][] scratch = plan.scratch();
+        double[] zr = scratch[0];
+        double[] zi = scratch[1];
+        for (int n = 0; n < M; n++) {
+            zr[n] = samples[2 * n];
+            zi[n] = samples[2 * n + 1];
+        }
+        plan.forward(zr, zi);
+
+        double[] cos = plan.realCos();
+        double[] sin = plan.realSin();
+
+        double dc = zr[0];
+        double nyquist = zi[0];
+        re[0] = dc + nyquist;
+        im[0] = 0.0;
+        re[M] = dc - nyquist;
+        im[M] = 0.0;
+
+        for (int k = 1; k < M; k++) {
+            double ar = zr[k];
+            double ai = zi[k];
+            double br = zr[M - k];
+            double bi = -zi[M - k];
+
+            // spectrum of even samples
+            double er = 0.5 * (ar + br);
+            double ei = 0.5 * (ai + bi);
+            // spectrum of odd samples, (Z[k] - conj(Z[M - k])) / 2i
+            double or = 0.5 * (ai - bi);
+            double oi = -0.5 * (ar - br);
+
+            // X[k] = E[k] + W^k * O[k], W = exp(-i * PI / M)
+            double wr = cos[k];
+            double wi = -sin[k];
+            re[k] = er + or * wr - oi * wi;
+            im[k] = ei + or * wi + oi * wr;
+        }
+    }
+
+    /**
+     * Inverse FFT of half spectrum into real samples, normalized, so inverse(forward(x)) equals x.
+     * @param re Real parts of bins 0..N/2.
+     * @param im Imaginary parts of bins 0..N/2.
+     * @param samples Output real samples, length being power of 2, at least 2.
+     */
+    public static void inverse(double[] re, double[] im, double[] samples) {
+        int N = samples.length;
+        checkSize(N);
+        int M = N >> 1;
+
+        FourierPlan plan = FourierPlanCache.forSize(M);
+        double[][] scratch = plan.scratch();
+        double[] zr = scratch[0];
+        double[] zi = scratch[1];
+
+        double[] cos = plan.realCos();
+        double[] sin = plan.realSin();
+
+        for (int k = 0; k < M; k++) {
+            double ar = re[k];
+            double ai = im[k];
+            double br = re[M - k];
+            double bi = -im[M - k];
+
+            double er = 0.5 * (ar + br);
+            double ei = 0.5 * (ai + bi);
+            double dr = 0.5 * (ar - br);
+            double di = 0.5 * (ai - bi);
+
+            // O[k] = D[k] * conj(W^k)
+            double c = cos[k];
+            double s = sin[k];
+            double or = dr * c - di * s;
+            double oi = dr * s + di * c;
+
+            // Z[k] = E[k] + i * O[k]
+            zr[k] = er - oi;
+            zi[k] = ei + or;
+        }
+        plan.inverse(zr, zi);
+
+        double scale = 1.0 / M;
+        for (int n = 0; n < M; n++) {
+            samples[2 * n] = zr[n] * scale;
+            samples[2 * n + 1] = zi[n] * scale;
+        }
+    }
+
+    private static void checkSize(int N) {
+        if (N < 2 || (N & (N - 1)) != 0) {
+            throw new IllegalArgumentException("Samples must be a power of 2, at least 2");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package cps.simulator;
 
 import cps.dto.SondaDto;
 import cps.dto.SondaInTimeDto;
+import cps.model.signals.SampleBuffer;
 import cps.model.signals.Signal;
 import cps.model.SignalFactory;
 import cps.model.SignalOperations;
@@ -40,51 +41,42 @@ public class SondaCore {
     }
 
     public static SondaDto run(Signal signal, double actualDistance, double signalVelocity, int bufferSize) {
-        List<Double> timestamps = signal.getTimestampSamples().keySet().stream().toList();
-        List<Double> samples = signal.getTimestampSamples().values().stream().toList();
+        SampleBuffer sampleBuffer = signal.getSampleBuffer();
+        double[] samples = sampleBuffer.values();
 
-        double timeStep = timestamps.get(1) - timestamps.getFirst();
+        double timeStep = signal.getTimeStep();
         int arrivalIndex = (int) Math.round(2 * actualDistance / signalVelocity / timeStep);
         logger.info("timeStep: %s | arrivalIndex: %s".formatted(timeStep, arrivalIndex));
 
-        if (signal.getDurationTime() < (2 * actualDistance / signalVelocity) + (bufferSize * timeStep)) {
+        if (signal.getDurationTime() < (2 * actualDistance / signalVelocity) + (bufferSize * timeStep)
+                || arrivalIndex + bufferSize > samples.length) {
             logger.warning("Signal is too short.");
             return null;
         }
 
-        List<Double> baseValues = samples.subList(0, bufferSize);
-        List<Double> shiftedValues = samples.subList(arrivalIndex, arrivalIndex + bufferSize);
-        List<Double> correlationProduct = SignalOperations.crossCorrelate(baseValues, shiftedValues);
-
-        Map<Double, Double> correlationProductTimestampSamples = createTimestampSamples(correlationProduct, timeStep);
+        double[] baseValues = Arrays.copyOfRange(samples, 0, bufferSize);
+        double[] shiftedValues = Arrays.copyOfRange(samples, arrivalIndex, arrivalIndex + bufferSize);
+        double[] correlationProduct = SignalOperations.crossCorrelate(baseValues, shiftedValues);
 
         double measuredDistance = getMeasuredDistance(signalVelocity, correlationProduct, timeStep);
 
-        Signal correlationSignal = SignalFactory.createSignal(correlationProductTimestampSamples);
-        Signal baseBufforedSignal = SignalFactory.createSignal(createTimestampSamples(baseValues, timeStep));
-        Signal shiftedBufforedSignal = SignalFactory.createSignal(createTimestampSamples(shiftedValues, timeStep));
+        Signal correlationSignal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, timeStep, correlationProduct));
+        Signal baseBufforedSignal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, timeStep, baseValues));
+        Signal shiftedBufforedSignal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, timeStep, shiftedValues));
 
         return new SondaDto(correlationSignal, baseBufforedSignal, shiftedBufforedSignal, measuredDistance);
     }
 
-    private static double getMeasuredDistance(double signalVelocity, List<Double> correlationProduct, double timeStep) {
-        int correlationSize = correlationProduct.size();
+    private static double getMeasuredDistance(double signalVelocity, double[] correlationProduct, double timeStep) {
+        int correlationSize = correlationProduct.length;
         int correlationMiddle = correlationSize / 2;
         int maxIndex = correlationMiddle;
         for (int i = correlationMiddle; i < correlationSize; i++) {
-            maxIndex = correlationProduct.get(i) > correlationProduct.get(maxIndex) ? i : maxIndex;
+            maxIndex = correlationProduct[i] > correlationProduct[maxIndex] ? i : maxIndex;
         }
         logger.info("maxIndex: " + maxIndex);
 
         double detectedDelay = (maxIndex - correlationMiddle) * timeStep;
         return (detectedDelay * signalVelocity) / 2.0;
     }
-
-    private static Map<Double, Double> createTimestampSamples(List<Double> samples, double timeStep) {
-        Map<Double, Double> timeStampSamples = new HashMap<>();
-        for (int i = 0; i < samples.size(); i++) {
-            timeStampSamples.put(i * timeStep, samples.get(i));
-        }
-        return timeStampSamples;
-    }
 }
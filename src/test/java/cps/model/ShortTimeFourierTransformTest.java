@@ -0,0 +1,76 @@
+package cps.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortTimeFourierTransformTest {
+
+    @Test
+    void frameMatchesWindowedDft() {
+        for (int frameSize : new int[]{64, 60}) {
+            double[] samples = new Random(17).doubles(500, -1, 1).toArray();
+            ShortTimeFourierTransform stft = ShortTimeFourierTransform.hamming(frameSize, 24);
+            Spectrogram spectrogram = stft.spectrogram(samples, 1000);
+
+            assertEquals(stft.frameCount(samples.length), spectrogram.getFrameCount());
+            int frame = 5;
+            for (int k = 0; k < stft.binCount(); k++) {
+                double re = 0;
+                double im = 0;
+                for (int n = 0; n < frameSize; n++) {
+                    double value = samples[frame * 24 + n] * SignalOperations.hammingWindow(n, frameSize);
+                    re += value * Math.cos(2 * Math.PI * k * n / frameSize);
+                    im -= value * Math.sin(2 * Math.PI * k * n / frameSize);
+                }
+                assertEquals(Math.hypot(re, im), spectrogram.getMagnitude(frame, k), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void frequencyChangeVisibleOverTime() {
+        double fs = 1024;
+        double[] samples = new double[8192];
+        for (int i = 0; i < samples.length; i++) {
+            double f = i < samples.length / 2 ? 64 : 256;
+            samples[i] = Math.sin(2 * Math.PI * f * i / fs);
+        }
+
+        Spectrogram spectrogram = ShortTimeFourierTransform.hamming(256, 128).spectrogram(samples, fs);
+
+        assertEquals(4.0, spectrogram.getFrequencyStep());
+        assertEquals(64.0, spectrogram.peakBin(0) * spectrogram.getFrequencyStep());
+        assertEquals(256.0, spectrogram.peakBin(spectrogram.getFrameCount() - 1) * spectrogram.getFrequencyStep());
+    }
+
+    @Test
+    void streamMatchesBatch() {
+        double[] samples = new Random(19).doubles(3000, -1, 1).toArray();
+        for (int hop : new int[]{50, 128, 300}) {
+            ShortTimeFourierTransform stft = ShortTimeFourierTransform.hamming(128, hop);
+            Spectrogram expected = stft.spectrogram(samples, 1);
+
+            List<double[]> frames = new ArrayList<>();
+            ShortTimeFourierTransform.FrameStream stream = stft.stream((f, re, im) -> {
+                double[] magnitudes = new double[stft.binCount()];
+                for (int k = 0; k < magnitudes.length; k++) {
+                    magnitudes[k] = Math.hypot(re[k], im[k]);
+                }
+                frames.add(magnitudes);
+            });
+            for (int from = 0; from < samples.length; from += 77) {
+                stream.push(samples, from, Math.min(samples.length, from + 77));
+            }
+
+            assertEquals(expected.getFrameCount(), stream.getFrameCount());
+            for (int f = 0; f < frames.size(); f++) {
+                assertArrayEquals(expected.getFrame(f), frames.get(f), 1e-12);
+            }
+        }
+    }
+}
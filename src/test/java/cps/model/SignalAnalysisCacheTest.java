@@ -0,0 +1,61 @@
+package cps.model;
+
+import cps.model.signals.SampleBuffer;
+import cps.model.signals.Signal;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignalAnalysisCacheTest {
+
+    @Test
+    void sameVersionReturnsCachedResult() {
+        Signal signal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, 0.1, new double[]{1, 2, 3, 4}));
+
+        Map<String, Double> stats = SignalAnalysisCache.getStatistics(signal);
+        signal.setName("renamed");
+
+        assertSame(stats, SignalAnalysisCache.getStatistics(signal));
+        assertEquals(2.5, stats.get("mean"), 1e-12);
+        assertSame(SignalAnalysisCache.getHistogramData(signal, 2), SignalAnalysisCache.getHistogramData(signal, 2));
+        assertNotSame(SignalAnalysisCache.getHistogramData(signal, 2), SignalAnalysisCache.getHistogramData(signal, 3));
+    }
+
+    @Test
+    void newSamplesInvalidateResults() {
+        Signal signal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, 0.1, new double[]{1, 2, 3, 4}));
+        Signal base = SignalFactory.createSignal(SampleBuffer.uniform(0.0, 0.1, new double[]{1, 2, 3, 4}));
+        long version = signal.getVersion();
+        Map<String, Double> stats = SignalAnalysisCache.getStatistics(signal);
+        assertEquals(0.0, SignalAnalysisCache.getMeasures(base, signal).get("MD"));
+
+        signal.setSampleBuffer(signal.getSampleBuffer().withValues(new double[]{2, 4, 6, 8}));
+
+        assertNotEquals(version, signal.getVersion());
+        assertNotSame(stats, SignalAnalysisCache.getStatistics(signal));
+        assertEquals(5.0, SignalAnalysisCache.getStatistics(signal).get("mean"), 1e-12);
+        assertEquals(4.0, SignalAnalysisCache.getMeasures(base, signal).get("MD"), 1e-12);
+
+        signal.setTimestampSamples(Map.of(0.0, 7.0));
+        assertEquals(7.0, SignalAnalysisCache.getStatistics(signal).get("mean"), 1e-12);
+    }
+
+    @Test
+    void cachedSpectrumReturnedAsNewSignal() {
+        double[] samples = new double[1024];
+        for (int n = 0; n < samples.length; n++) {
+            samples[n] = Math.sin(2 * Math.PI * n / 16);
+        }
+        Signal signal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, 1.0, samples));
+
+        Signal psd = SignalAnalysisCache.getPowerSpectralDensity(signal, 64);
+        Signal again = SignalAnalysisCache.getPowerSpectralDensity(signal, 64);
+
+        assertNotSame(psd, again);
+        assertNotSame(psd.getSampleBuffer().values(), again.getSampleBuffer().values());
+        assertArrayEquals(psd.getSampleBuffer().values(), again.getSampleBuffer().values());
+        assertEquals(33, psd.size());
+    }
+}
@@ -1,10 +1,14 @@
 package cps.model;
 
+import cps.model.signals.SampleBuffer;
+import cps.model.signals.Signal;
 import org.junit.jupiter.api.Test;
 
 import java.util.LinkedHashMap;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 class SignalFactoryTest {
 
     @Test
@@ -26,4 +30,19 @@ class SignalFactoryTest {
 
         System.out.println(product);
     }
-}
\ No newline at end of file
+
+    @Test
+    void quantizationLeavesGivenSamples() {
+        double[] values = {0.0, 0.3, 0.55, 1.0};
+        Signal signal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, 0.1, values));
+        try {
+            Signal quantized = SignalFactory.createSignalWithQuantization(signal, 1, "with rounding");
+
+            assertArrayEquals(new double[]{0.0, 0.0, 1.0, 1.0}, quantized.getSampleBuffer().values());
+            assertArrayEquals(new double[]{0.0, 0.3, 0.55, 1.0}, signal.getSampleBuffer().values());
+            assertArrayEquals(new double[]{0.0, 0.3, 0.55, 1.0}, values);
+        } finally {
+            SignalFactory.createSignalWithQuantization(signal, 8, "none");
+        }
+    }
+}
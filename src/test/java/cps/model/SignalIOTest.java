@@ -1,11 +1,18 @@
 package cps.model;
 
 import cps.model.signals.PeriodicSignal;
+import cps.model.signals.SampleBuffer;
 import cps.model.signals.Signal;
 import cps.model.signals.SignalType;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 
 class SignalIOTest {
@@ -33,4 +40,35 @@ class SignalIOTest {
 
         SignalIO.writeSignalToFile(signal);
     }
-}
\ No newline at end of file
+
+    @Test
+    void readLegacySignalWithMapOfSamples() throws URISyntaxException {
+        // saved before samples were moved from map to sample buffer
+        Path path = Path.of(SignalIOTest.class.getResource("legacy-signal.ser").toURI());
+
+        Signal signal = SignalIO.readSignalFromFile(path.toString());
+
+        assertInstanceOf(PeriodicSignal.class, signal);
+        assertEquals("legacy", signal.getName());
+        assertEquals(0.5, ((PeriodicSignal) signal).getPeriod());
+        assertEquals(SignalType.SINE, signal.getSignalType());
+        assertEquals(5, signal.size());
+        assertEquals(0.25, signal.getTimeStep(), 1e-12);
+        assertEquals(Math.sin(3), signal.getSamples().get(3), 1e-12);
+    }
+
+    @Test
+    void writtenSignalReadBack() throws IOException {
+        Signal signal = SignalFactory.createSignal(SampleBuffer.uniform(0.0, 0.5, new double[]{1, 2, 3}));
+        signal.setName("roundTrip");
+        SignalIO.writeSignalToFile(signal);
+
+        try (var files = Files.list(Path.of("signals"))) {
+            List<Path> written = files.filter(p -> p.getFileName().toString().startsWith("roundTrip_")).sorted().toList();
+            Signal read = SignalIO.readSignalFromFile(written.getLast().toString());
+
+            assertEquals(signal.getSampleBuffer(), read.getSampleBuffer());
+            assertEquals("roundTrip", read.getName());
+        }
+    }
+}
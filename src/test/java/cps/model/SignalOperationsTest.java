@@ -1,13 +1,41 @@
 package cps.model;
 
 import cps.model.signals.Complex;
+import cps.model.signals.SampleBuffer;
+import cps.model.signals.Signal;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static cps.model.SignalOperations.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class SignalOperationsTest {
 
+    @Test
+    void operationsOnDifferentGrids() {
+        // a at t = 0, 1, 2 and b at t = 1, 2, 3
+        Signal a = SignalFactory.createSignal(SampleBuffer.uniform(0.0, 1.0, new double[]{2, 4, 6}));
+        Signal b = SignalFactory.createSignal(SampleBuffer.uniform(1.0, 1.0, new double[]{1, 2, 8}));
+
+        assertArrayEquals(new double[]{2, 5, 8, 8}, sum(List.of(a, b)).getSampleBuffer().values(), 1e-12);
+        assertArrayEquals(new double[]{2, 3, 4, -8}, difference(List.of(a, b)).getSampleBuffer().values(), 1e-12);
+        assertArrayEquals(new double[]{2, 4, 12, 0}, multiply(List.of(a, b)).getSampleBuffer().values(), 1e-12);
+        assertArrayEquals(new double[]{2, 4, 3, 0}, divide(List.of(a, b)).getSampleBuffer().values(), 1e-12);
+        assertEquals(3.0, sum(List.of(a, b)).getSampleBuffer().getTimestamp(3), 1e-12);
+    }
+
+    @Test
+    void firCoefficientsSymmetric() {
+        for (int M : new int[]{2, 7, 20, 63}) {
+            List<Double> coefficients = createFIRCoefficients(M, 4.0);
+            for (int n = 0; n < M; n++) {
+                assertEquals(coefficients.get(M - 1 - n), coefficients.get(n), 1e-15, "M=" + M + ", n=" + n);
+            }
+        }
+    }
+
     @Test
     void fourierTest() {
         double[] test = new double[]{
@@ -77,6 +105,58 @@ class SignalOperationsTest {
         System.out.println(sb);
     }
 
+    @Test
+    void fctMatchesDct() {
+        double[] samples = new java.util.Random(17).doubles(64, -1, 1).toArray();
+
+        assertArrayEquals(dctII(samples), fctII(samples), 1e-9);
+
+        double[] oddSamples = new java.util.Random(17).doubles(45, -1, 1).toArray();
+        assertArrayEquals(dctII(oddSamples), fctII(oddSamples), 1e-9);
+    }
+
+    @Test
+    void fftMatchesDft() {
+        double[] samples = new java.util.Random(19).doubles(32, -1, 1).toArray();
+
+        Complex[] dftResult = dft(samples, 5);
+        Complex[] fftResult = fftDIF(samples, 5);
+
+        for (int i = 0; i < dftResult.length; i++) {
+            assertEquals(dftResult[i].real(), fftResult[i].real(), 1e-9);
+            assertEquals(dftResult[i].imaginary(), fftResult[i].imaginary(), 1e-9);
+        }
+    }
+
+    @Test
+    void inverseFourierRestoresSamples() {
+        for (int N : new int[]{1, 32, 45}) {
+            double[] samples = new java.util.Random(31).doubles(N, -1, 1).toArray();
+
+            assertArrayEquals(samples, ifftReal(fftReal(samples), N), 1e-9);
+
+            Complex[] restored = idft(dft(samples));
+            Complex[] fastRestored = ifft(fft(samples));
+            for (int n = 0; n < N; n++) {
+                assertEquals(samples[n], restored[n].real(), 1e-9);
+                assertEquals(0.0, restored[n].imaginary(), 1e-9);
+                assertEquals(samples[n], fastRestored[n].real(), 1e-9);
+                assertEquals(0.0, fastRestored[n].imaginary(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void inverseCosineRestoresSamples() {
+        for (int N : new int[]{64, 45}) {
+            double[] samples = new java.util.Random(37).doubles(N, -1, 1).toArray();
+
+            assertArrayEquals(samples, dctIII(dctII(samples)), 1e-9);
+            assertArrayEquals(samples, fctIII(fctII(samples)), 1e-9);
+            assertArrayEquals(dctIII(samples), fctIII(samples), 1e-9);
+        }
+    }
+
     @Test
     void flipBits4() {
         Complex[] samples = new Complex[4];
@@ -0,0 +1,86 @@
+package cps.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WelchEstimatorTest {
+
+    @Test
+    void sineConcentratedInItsBinWithItsPower() {
+        double fs = 1000.0;
+        int segmentSize = 256;
+        double frequency = 32 * fs / segmentSize;
+        double[] samples = new double[100_000];
+        for (int n = 0; n < samples.length; n++) {
+            samples[n] = 2.0 * Math.sin(2 * Math.PI * frequency * n / fs);
+        }
+
+        WelchEstimator estimator = WelchEstimator.halfOverlap(segmentSize);
+        double[] psd = estimator.estimate(samples, fs);
+
+        assertEquals(estimator.binCount(), psd.length);
+        int peak = 0;
+        double total = 0;
+        for (int k = 0; k < psd.length; k++) {
+            total += psd[k];
+            if (psd[k] > psd[peak]) {
+                peak = k;
+            }
+        }
+        assertEquals(32, peak);
+        // mean power of sine is A^2 / 2
+        assertEquals(2.0, total * fs / segmentSize, 0.01);
+    }
+
+    @Test
+    void whiteNoiseHasFlatDensity() {
+        double fs = 200.0;
+        double[] samples = new Random(41).doubles(400_000).map(x -> (x - 0.5) * Math.sqrt(12)).toArray();
+
+        // segment size not being power of 2 uses general FFT plan
+        double[] psd = new WelchEstimator(120, 40).estimate(samples, fs);
+
+        // unit variance spread over fs / 2
+        for (int k = 1; k < psd.length - 1; k++) {
+            assertEquals(2.0 / fs, psd[k], 0.1 * 2.0 / fs, "bin " + k);
+        }
+    }
+
+    @Test
+    void matchesSingleSegmentPeriodogram() {
+        int N = 64;
+        double[] samples = new Random(43).doubles(N, -1, 1).toArray();
+        double[] psd = WelchEstimator.halfOverlap(N).estimate(samples, 1.0);
+
+        double windowPower = 0;
+        for (int n = 0; n < N; n++) {
+            windowPower += Math.pow(SignalOperations.hammingWindow(n, N), 2);
+        }
+        for (int k = 0; k <= N / 2; k++) {
+            double re = 0;
+            double im = 0;
+            for (int n = 0; n < N; n++) {
+                double x = samples[n] * SignalOperations.hammingWindow(n, N);
+                re += x * Math.cos(2 * Math.PI * k * n / N);
+                im -= x * Math.sin(2 * Math.PI * k * n / N);
+            }
+            double expected = (re * re + im * im) / windowPower * (k == 0 || k == N / 2 ? 1 : 2);
+            assertEquals(expected, psd[k], 1e-9, "bin " + k);
+        }
+    }
+
+    @Test
+    void trailingSamplesPastLastSegmentDropped() {
+        double[] samples = new Random(47).doubles(1000, -1, 1).toArray();
+        WelchEstimator estimator = WelchEstimator.halfOverlap(256);
+
+        // segments start every 128 samples, last one ends at 896
+        assertEquals(6, estimator.segmentCount(samples.length));
+        assertArrayEquals(estimator.estimate(Arrays.copyOf(samples, 896), 1.0), estimator.estimate(samples, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimate(new double[255], 1.0));
+    }
+}
@@ -0,0 +1,49 @@
+package cps.model.filter;
+
+import cps.model.SignalOperations;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FIRDesignCacheTest {
+
+    @Test
+    void designCachedAndCopied() {
+        double[] shared = FIRDesignCache.design(31, 6.0, WindowType.HAMMING, FIRDesignCache.PassType.LOW_PASS);
+        assertSame(shared, FIRDesignCache.design(31, 6.0, WindowType.HAMMING, FIRDesignCache.PassType.LOW_PASS));
+
+        double[] copy = FIRDesignCache.coefficients(31, 6.0, WindowType.HAMMING, FIRDesignCache.PassType.LOW_PASS);
+        assertNotSame(shared, copy);
+        assertArrayEquals(shared, copy);
+        assertArrayEquals(copy, SignalOperations.createFIRCoefficients(31, 6.0).stream().mapToDouble(Double::doubleValue).toArray());
+
+        double[] highPass = FIRDesignCache.coefficients(31, 6.0, WindowType.HAMMING, FIRDesignCache.PassType.HIGH_PASS);
+        for (int n = 0; n < copy.length; n++) {
+            assertEquals(n % 2 == 0 ? copy[n] : -copy[n], highPass[n]);
+        }
+    }
+
+    @Test
+    void windowsSymmetricAndPeakInMiddle() {
+        for (WindowType type : WindowType.values()) {
+            double[] window = WindowTables.get(type, 41);
+            assertSame(window, WindowTables.get(type, 41));
+            assertEquals(1.0, window[20], 1e-12, type.name());
+            for (int n = 0; n < 20; n++) {
+                assertEquals(window[n], window[40 - n], 1e-12, type.name());
+                assertTrue(window[n] < window[n + 1], type.name());
+            }
+        }
+        assertArrayEquals(new double[]{1.0}, WindowType.KAISER.create(1));
+        assertEquals(0.0, WindowTables.get(WindowType.HANN, 41)[0], 1e-12);
+    }
+
+    @Test
+    void publicWindowIsCopy() {
+        double[] window = WindowTables.window(WindowType.HAMMING, 21);
+        window[10] = 100.0;
+
+        assertNotSame(WindowTables.get(WindowType.HAMMING, 21), WindowTables.window(WindowType.HAMMING, 21));
+        assertEquals(1.0, WindowTables.window(WindowType.HAMMING, 21)[10], 1e-12);
+    }
+}
@@ -0,0 +1,36 @@
+package cps.model.filter;
+
+import cps.model.transform.FastConvolution;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterBankTest {
+
+    @Test
+    void bankMatchesSeparateFiltrations() {
+        double[] samples = new Random(73).doubles(200_000, -1, 1).toArray();
+
+        List<double[]> coefficientSets = new ArrayList<>();
+        for (int M : new int[]{1, 8, 21, 51, 301}) {
+            coefficientSets.add(FIRDesignCache.coefficients(M, 5.0, WindowType.HAMMING, FIRDesignCache.PassType.LOW_PASS));
+            coefficientSets.add(FIRDesignCache.coefficients(M, 3.0, WindowType.BLACKMAN, FIRDesignCache.PassType.HIGH_PASS));
+        }
+        coefficientSets.add(new Random(79).doubles(33, -1, 1).toArray());
+
+        double[][] outputs = new FilterBank(coefficientSets).filter(samples);
+
+        assertEquals(coefficientSets.size(), outputs.length);
+        for (int f = 0; f < outputs.length; f++) {
+            double[] coefficients = coefficientSets.get(f);
+            int shift = (coefficients.length - 1) / 2;
+            double[] expected = Arrays.copyOfRange(FastConvolution.direct(samples, coefficients), shift, shift + samples.length);
+            assertArrayEquals(expected, outputs[f], 1e-9, "filter " + f);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package cps.model.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IIRDesignTest {
+
+    @Test
+    void butterworthHasHalfPowerAtCutoff() {
+        for (int order : new int[]{1, 2, 5, 8}) {
+            BiquadCascade lowPass = IIRDesign.lowPass(IIRDesign.Approximation.BUTTERWORTH, order, 1000, 100);
+            assertEquals((order + 1) / 2, lowPass.getSectionCount());
+            assertEquals(1.0, lowPass.magnitudeResponse(0.0), 1e-9);
+            assertEquals(Math.sqrt(0.5), lowPass.magnitudeResponse(0.1), 1e-9);
+            assertTrue(lowPass.magnitudeResponse(0.4) < lowPass.magnitudeResponse(0.2));
+            assertTrue(lowPass.magnitudeResponse(0.2) < Math.sqrt(0.5));
+
+            BiquadCascade highPass = IIRDesign.highPass(IIRDesign.Approximation.BUTTERWORTH, order, 1000, 100);
+            assertEquals(1.0, highPass.magnitudeResponse(0.5), 1e-9);
+            assertEquals(Math.sqrt(0.5), highPass.magnitudeResponse(0.1), 1e-9);
+            assertTrue(highPass.magnitudeResponse(0.01) < highPass.magnitudeResponse(0.05));
+        }
+    }
+
+    @Test
+    void chebyshevRipplesInPassBand() {
+        double ripple = 1 / Math.sqrt(1 + Math.pow(10, IIRDesign.DEFAULT_RIPPLE_DB / 10) - 1);
+        for (int order : new int[]{3, 4}) {
+            BiquadCascade lowPass = IIRDesign.lowPass(IIRDesign.Approximation.CHEBYSHEV, order, 1000, 100);
+            for (double f = 0.0; f <= 0.1; f += 0.005) {
+                double magnitude = lowPass.magnitudeResponse(f);
+                assertTrue(magnitude <= 1.0 + 1e-9 && magnitude >= ripple - 1e-9, "f=" + f);
+            }
+            assertEquals(ripple, lowPass.magnitudeResponse(0.1), 1e-9);
+            // steeper than Butterworth filter of the same order
+            BiquadCascade butterworth = IIRDesign.lowPass(IIRDesign.Approximation.BUTTERWORTH, order, 1000, 100);
+            assertTrue(lowPass.magnitudeResponse(0.2) < butterworth.magnitudeResponse(0.2));
+        }
+    }
+
+    @Test
+    void blockProcessingMatchesWholeSignal() {
+        double[] samples = new Random(71).doubles(1000, -1, 1).toArray();
+        BiquadCascade filter = IIRDesign.lowPass(IIRDesign.Approximation.CHEBYSHEV, 6, 1000, 50);
+        double[] expected = filter.process(samples);
+
+        filter.reset();
+        double[] blocks = samples.clone();
+        for (int from = 0; from < blocks.length; from += 97) {
+            filter.process(blocks, from, Math.min(blocks.length, from + 97), blocks, from);
+        }
+
+        assertArrayEquals(expected, blocks, 1e-12);
+    }
+}
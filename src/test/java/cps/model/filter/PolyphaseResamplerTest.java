@@ -0,0 +1,87 @@
+package cps.model.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolyphaseResamplerTest {
+
+    @Test
+    void rationalResamplingKeepsLowFrequency() {
+        double fs = 1000;
+        double frequency = 20;
+        double[] samples = sine(frequency, fs, 2000);
+
+        PolyphaseResampler resampler = new PolyphaseResampler(3, 2);
+        double[] resampled = resampler.resample(samples);
+
+        assertEquals(3000, resampled.length);
+        double outputFs = fs * 3 / 2;
+        for (int m = 200; m < resampled.length - 200; m++) {
+            assertEquals(Math.sin(2 * Math.PI * frequency * m / outputFs), resampled[m], 2e-2, "m=" + m);
+        }
+    }
+
+    @Test
+    void decimationSuppressesAliasedFrequency() {
+        double fs = 1000;
+        double[] low = sine(10, fs, 4000);
+        double[] high = sine(400, fs, 4000);
+        double[] mixed = new double[low.length];
+        for (int i = 0; i < mixed.length; i++) {
+            mixed[i] = low[i] + high[i];
+        }
+
+        // 400 Hz lies above Nyquist frequency of 250 Hz after decimation by 2, beyond transition band of filter
+        double[] decimated = PolyphaseResampler.decimate(mixed, 2);
+
+        assertEquals(2000, decimated.length);
+        for (int m = 100; m < decimated.length - 100; m++) {
+            assertEquals(low[2 * m], decimated[m], 5e-2, "m=" + m);
+        }
+    }
+
+    @Test
+    void passbandFlatForLargeDecimation() {
+        double fs = 1000;
+        for (int factor : new int[]{8, 16, 32}) {
+            // tone at 37% of cut-off frequency fs / (2 * factor)
+            double frequency = 0.37 * fs / (2 * factor);
+            double[] samples = sine(frequency, fs, 64 * 1024);
+
+            double[] decimated = PolyphaseResampler.decimate(samples, factor);
+
+            double amplitude = 0.0;
+            for (int m = decimated.length / 4; m < 3 * decimated.length / 4; m++) {
+                amplitude = Math.max(amplitude, Math.abs(decimated[m]));
+            }
+            assertEquals(1.0, amplitude, 1e-2, "factor=" + factor);
+        }
+    }
+
+    @Test
+    void interpolationKeepsOriginalSamples() {
+        double[] samples = sine(5, 100, 400);
+        double[] interpolated = PolyphaseResampler.interpolate(samples, 4);
+
+        assertEquals(1600, interpolated.length);
+        for (int n = 50; n < samples.length - 50; n++) {
+            assertEquals(samples[n], interpolated[4 * n], 1e-2);
+        }
+    }
+
+    @Test
+    void factorsReduced() {
+        PolyphaseResampler resampler = new PolyphaseResampler(6, 4);
+        assertEquals(3, resampler.getInterpolation());
+        assertEquals(2, resampler.getDecimation());
+    }
+
+    private static double[] sine(double frequency, double fs, int count) {
+        double[] samples = new double[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = Math.sin(2 * Math.PI * frequency * i / fs);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,64 @@
+package cps.model.filter;
+
+import cps.model.SignalOperations;
+import cps.model.signals.SampleBuffer;
+import cps.model.signals.Signal;
+import cps.model.signals.SignalType;
+import cps.model.transform.FastConvolution;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingFIRFilterTest {
+
+    @Test
+    void matchesWholeSignalFiltration() {
+        double[] samples = new Random(43).doubles(5000, -1, 1).toArray();
+        Signal signal = Signal.builder()
+                .startTime(0.0)
+                .durationTime(5.0)
+                .sampleBuffer(SampleBuffer.uniform(0.0, 0.001, samples))
+                .signalType(SignalType.CUSTOM)
+                .build();
+        double fs = signal.size() / signal.getDurationTime();
+
+        for (int M : new int[]{1, 20, 63}) {
+            double[] lowPass = SignalOperations.lowPassFIRFiltration(signal, M, 50).filteredSignal().getSampleBuffer().values();
+            assertArrayEquals(lowPass, filterInChunks(StreamingFIRFilter.lowPass(M, fs, 50), samples, 333), 1e-9);
+
+            double[] highPass = SignalOperations.highPassFIRFiltration(signal, M, 50).filteredSignal().getSampleBuffer().values();
+            assertArrayEquals(highPass, filterInChunks(StreamingFIRFilter.highPass(M, fs, 50), samples, 1000), 1e-9);
+        }
+    }
+
+    @Test
+    void withoutDelayCompensationEmitsFullConvolution() {
+        Random random = new Random(47);
+        double[] samples = random.doubles(1234, -1, 1).toArray();
+        double[] coefficients = random.doubles(17, -1, 1).toArray();
+
+        StreamingFIRFilter filter = new StreamingFIRFilter(coefficients, false);
+        double[] expected = FastConvolution.direct(samples, coefficients);
+
+        assertArrayEquals(expected, filterInChunks(filter, samples, 100), 1e-9);
+        // filter is reset by flush and can be reused
+        assertArrayEquals(expected, filterInChunks(filter, samples, 7), 1e-9);
+    }
+
+    private static double[] filterInChunks(StreamingFIRFilter filter, double[] samples, int chunk) {
+        double[] result = new double[0];
+        for (int from = 0; from < samples.length; from += chunk) {
+            result = concat(result, filter.process(samples, from, Math.min(samples.length, from + chunk)));
+        }
+        return concat(result, filter.flush());
+    }
+
+    private static double[] concat(double[] first, double[] second) {
+        double[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
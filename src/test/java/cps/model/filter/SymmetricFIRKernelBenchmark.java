@@ -0,0 +1,48 @@
+package cps.model.filter;
+
+import cps.model.SignalOperations;
+import cps.model.transform.FastConvolution;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares FIR filtration paths: boxed list convolution, direct convolution on arrays and folded symmetric kernel.
+ * Not run as test, start with main method. Each case is warmed up before measured runs, so that JIT compiles it.
+ */
+public class SymmetricFIRKernelBenchmark {
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 10;
+
+    public static void main(String[] args) {
+        int N = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        int M = args.length > 1 ? Integer.parseInt(args[1]) : 63;
+
+        double[] samples = new Random(1).doubles(N, -1, 1).toArray();
+        List<Double> coefficientsList = SignalOperations.createFIRCoefficients(M, 8.0);
+        double[] coefficients = coefficientsList.stream().mapToDouble(Double::doubleValue).toArray();
+        List<Double> samplesList = Arrays.stream(samples).boxed().toList();
+        SymmetricFIRKernel kernel = new SymmetricFIRKernel(coefficients);
+
+        System.out.printf("N = %d, M = %d, %s%n", N, M, kernel.getSymmetry());
+        measure("boxed convolve", () -> SignalOperations.convolve(samplesList, coefficientsList));
+        measure("direct array", () -> FastConvolution.direct(samples, coefficients));
+        measure("folded kernel", () -> kernel.convolve(samples));
+        measure("overlap-add FFT", () -> FastConvolution.overlapAdd(samples, coefficients));
+    }
+
+    private static void measure(String name, Supplier<Object> filtration) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            filtration.get();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            filtration.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-16s %8.2f ms%n", name, best / 1e6);
+    }
+}
@@ -0,0 +1,55 @@
+package cps.model.filter;
+
+import cps.model.SignalOperations;
+import cps.model.transform.FastConvolution;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymmetricFIRKernelTest {
+
+    @Test
+    void foldedFiltrationMatchesConvolution() {
+        double[] samples = new Random(61).doubles(10_000, -1, 1).toArray();
+        for (int M : new int[]{1, 2, 21, 64}) {
+            double[] lowPass = toArray(SignalOperations.createFIRCoefficients(M, 8.0));
+            double[] highPass = lowPass.clone();
+            for (int n = 1; n < M; n += 2) {
+                highPass[n] = -highPass[n];
+            }
+
+            for (double[] coefficients : new double[][]{lowPass, highPass}) {
+                SymmetricFIRKernel kernel = new SymmetricFIRKernel(coefficients);
+                double[] expected = FastConvolution.direct(samples, coefficients);
+                int shift = (M - 1) / 2;
+
+                assertArrayEquals(expected, kernel.convolve(samples), 1e-9);
+                assertArrayEquals(Arrays.copyOfRange(expected, shift, shift + samples.length), kernel.filter(samples), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void symmetryDetected() {
+        double[] lowPass = toArray(SignalOperations.createFIRCoefficients(20, 4.0));
+        assertEquals(SymmetricFIRKernel.Symmetry.SYMMETRIC, SymmetricFIRKernel.detectSymmetry(lowPass));
+
+        double[] highPass = lowPass.clone();
+        for (int n = 1; n < highPass.length; n += 2) {
+            highPass[n] = -highPass[n];
+        }
+        assertEquals(SymmetricFIRKernel.Symmetry.ANTISYMMETRIC, SymmetricFIRKernel.detectSymmetry(highPass));
+
+        double[] random = new Random(67).doubles(20, -1, 1).toArray();
+        assertEquals(SymmetricFIRKernel.Symmetry.NONE, SymmetricFIRKernel.detectSymmetry(random));
+        assertArrayEquals(FastConvolution.direct(lowPass, random), new SymmetricFIRKernel(random).convolve(lowPass), 1e-9);
+    }
+
+    private static double[] toArray(List<Double> coefficients) {
+        return coefficients.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
@@ -0,0 +1,84 @@
+package cps.model.signals;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampleBufferTest {
+
+    @Test
+    void uniformGridDetected() {
+        LinkedHashMap<Double, Double> timestampSamples = new LinkedHashMap<>();
+        double timestamp = 0.0;
+        for (int i = 0; i < 100; i++) {
+            timestampSamples.put(timestamp, (double) i);
+            timestamp += 0.1;
+        }
+
+        SampleBuffer sampleBuffer = SampleBuffer.of(timestampSamples);
+
+        assertTrue(sampleBuffer.isUniform());
+        assertEquals(100, sampleBuffer.size());
+        assertEquals(9.9, sampleBuffer.getTimestamp(99), 1e-9);
+        assertEquals(42, sampleBuffer.indexOf(4.2));
+        assertEquals(-1, sampleBuffer.indexOf(20.0));
+    }
+
+    @Test
+    void irregularTimestampsKept() {
+        SampleBuffer sampleBuffer = SampleBuffer.of(new double[]{0.0, 0.1, 0.5, 0.6}, new double[]{1, 2, 3, 4});
+
+        assertFalse(sampleBuffer.isUniform());
+        assertEquals(0.5, sampleBuffer.getTimestamp(2));
+        assertEquals(2, sampleBuffer.indexOf(0.45));
+        assertEquals(4, sampleBuffer.toMap().size());
+    }
+
+    @Test
+    void unorderedMapSortedByTimestamp() {
+        Map<Double, Double> timestampSamples = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            timestampSamples.put(i * 0.37, (double) i);
+        }
+
+        SampleBuffer sampleBuffer = SampleBuffer.of(timestampSamples);
+
+        assertTrue(sampleBuffer.isUniform());
+        assertEquals(0.37, sampleBuffer.getStep(), 1e-12);
+        assertEquals(49 * 0.37, sampleBuffer.getEndTime(), 1e-12);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, sampleBuffer.getValue(i));
+            assertEquals(i, sampleBuffer.indexOf(i * 0.37));
+        }
+    }
+
+    @Test
+    void versionAssignedOnCreationAndDeserialization() throws IOException, ClassNotFoundException {
+        SampleBuffer sampleBuffer = SampleBuffer.uniform(0.0, 0.5, new double[]{1.0, 2.0, 3.0});
+        long version = sampleBuffer.getVersion();
+        assertTrue(version > 0);
+        assertEquals(version, sampleBuffer.getVersion());
+        assertNotEquals(version, sampleBuffer.withValues(new double[]{4.0, 5.0, 6.0}).getVersion());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(sampleBuffer);
+        }
+        SampleBuffer copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (SampleBuffer) in.readObject();
+        }
+        assertTrue(copy.getVersion() > 0);
+        assertNotEquals(version, copy.getVersion());
+        assertEquals(copy.getVersion(), copy.getVersion());
+    }
+}
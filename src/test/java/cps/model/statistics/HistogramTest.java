@@ -0,0 +1,67 @@
+package cps.model.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    @Test
+    void countsMatchNaiveBinning() {
+        double[] samples = new Random(17).doubles(3 * StatisticsAccumulator.PARALLEL_THRESHOLD + 11, -3, 7).toArray();
+        int bins = 13;
+        Histogram histogram = Histogram.of(samples, bins);
+
+        long[] expected = new long[bins];
+        double min = histogram.getMin();
+        for (double sample : samples) {
+            expected[Math.min(bins - 1, (int) Math.floor((sample - min) / histogram.getBinWidth()))]++;
+        }
+
+        assertEquals(samples.length, histogram.getTotalCount());
+        for (int bin = 0; bin < bins; bin++) {
+            assertEquals(expected[bin], histogram.getCount(bin), "bin " + bin);
+        }
+    }
+
+    @Test
+    void extremesFallIntoOuterBins() {
+        Histogram histogram = Histogram.of(new double[]{-1.0, -0.9, 0.9, 1.0}, 4);
+
+        assertEquals(2, histogram.getCount(0));
+        assertEquals(0, histogram.getCount(1));
+        assertEquals(2, histogram.getCount(3));
+        assertEquals(-1.0, histogram.getLowerBound(0), 1e-12);
+        assertEquals(-0.5, histogram.getUpperBound(0), 1e-6);
+        assertEquals(String.format("%.2f - %.2f", -1.0, -0.5), histogram.label(0));
+    }
+
+    @Test
+    void mergeRequiresSameBins() {
+        Histogram histogram = new Histogram(0.0, 1.0, 4);
+        histogram.accept(0.3);
+        Histogram other = new Histogram(0.0, 1.0, 4);
+        other.accept(0.9);
+
+        histogram.merge(other);
+
+        assertEquals(2, histogram.getTotalCount());
+        assertEquals(1, histogram.getCount(1));
+        assertEquals(1, histogram.getCount(3));
+        assertThrows(IllegalArgumentException.class, () -> histogram.merge(new Histogram(0.0, 2.0, 4)));
+    }
+
+    @Test
+    void constantSignalOfLargeMagnitude() {
+        double[] samples = new double[100];
+        Arrays.fill(samples, 3e12);
+
+        Histogram histogram = Histogram.of(samples, 5);
+
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(100, histogram.getCount(0));
+    }
+}
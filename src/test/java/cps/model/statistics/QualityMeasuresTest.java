@@ -0,0 +1,87 @@
+package cps.model.statistics;
+
+import cps.model.signals.SampleBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QualityMeasuresTest {
+
+    @Test
+    void alignedSignalsMatchSeparateMeasures() {
+        int N = 2 * StatisticsAccumulator.PARALLEL_THRESHOLD + 3;
+        Random random = new Random(19);
+        double[] base = random.doubles(N, -1, 1).toArray();
+        double[] samples = new double[N];
+        for (int i = 0; i < N; i++) {
+            samples[i] = base[i] + 0.01 * random.nextGaussian();
+        }
+
+        QualityMeasures measures = QualityMeasures.of(SampleBuffer.uniform(0.0, 0.001, base), SampleBuffer.uniform(0.0, 0.001, samples));
+
+        double errorSum = 0;
+        double signalSum = 0;
+        double maxSample = Double.NEGATIVE_INFINITY;
+        double maxDifference = 0;
+        for (int i = 0; i < N; i++) {
+            double difference = samples[i] - base[i];
+            errorSum += difference * difference;
+            signalSum += samples[i] * samples[i];
+            maxSample = Math.max(maxSample, samples[i]);
+            maxDifference = Math.max(maxDifference, Math.abs(difference));
+        }
+        double mse = Math.sqrt(errorSum / N);
+        double snr = 10 * Math.log10(signalSum / errorSum);
+
+        assertEquals(mse, measures.getMSE(), 1e-12);
+        assertEquals(snr, measures.getSNR(), 1e-9);
+        assertEquals(10 * Math.log10(maxSample / mse), measures.getPSNR(), 1e-9);
+        assertEquals((snr - 1.76) / 6.02, measures.getENOB(), 1e-9);
+        assertEquals(maxDifference, measures.getMD(), 1e-15);
+        assertEquals(0, measures.getMissingCount());
+    }
+
+    @Test
+    void shiftedSignalPairedByTimestamp() {
+        SampleBuffer base = SampleBuffer.uniform(0.0, 0.5, new double[]{1, 2, 3, 4});
+        SampleBuffer samples = SampleBuffer.uniform(1.0, 0.5, new double[]{3, 5, 7});
+
+        QualityMeasures measures = QualityMeasures.of(base, samples);
+
+        // 3 and 5 paired with 3 and 4, sample at t = 2.0 has no base sample
+        assertEquals(3, measures.getCount());
+        assertEquals(1, measures.getMissingCount());
+        assertEquals(Math.sqrt(1.0 / 3), measures.getMSE(), 1e-12);
+        assertEquals(1.0, measures.getMD());
+        assertEquals(10 * Math.log10(7 / Math.sqrt(1.0 / 3)), measures.getPSNR(), 1e-12);
+    }
+
+    @Test
+    void identicalSignalsHaveInfiniteSNR() {
+        SampleBuffer buffer = SampleBuffer.uniform(0.0, 1.0, new double[]{1, -1, 2});
+        assertEquals(Double.POSITIVE_INFINITY, QualityMeasures.of(buffer, buffer).getSNR());
+    }
+
+    @Test
+    void unorderedMapsPairedByTimestamp() {
+        Map<Double, Double> base = new HashMap<>();
+        Map<Double, Double> samples = new HashMap<>();
+        for (int i = 0; i < 7; i++) {
+            base.put(i * 0.1, (double) i);
+            if (i != 3) {
+                samples.put(i * 0.1, i + 0.5);
+            }
+        }
+
+        QualityMeasures measures = QualityMeasures.of(SampleBuffer.of(base), SampleBuffer.of(samples));
+
+        assertEquals(6, measures.getCount());
+        assertEquals(0, measures.getMissingCount());
+        assertEquals(0.5, measures.getMSE(), 1e-12);
+        assertEquals(0.5, measures.getMD(), 1e-12);
+    }
+}
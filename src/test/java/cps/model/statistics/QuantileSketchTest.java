@@ -0,0 +1,64 @@
+package cps.model.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+    // rank error allowed for default k, as fraction of samples count
+    private static final double RANK_TOLERANCE = 0.02;
+
+    @Test
+    void quantilesWithinRankErrorBound() {
+        double[] samples = new Random(31).doubles(1_000_000).map(x -> x * x * 100 - 20).toArray();
+        QuantileSketch sketch = QuantileSketch.of(samples);
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        assertEquals(samples.length, sketch.getCount());
+        assertEquals(sorted[0], sketch.quantile(0.0));
+        assertEquals(sorted[sorted.length - 1], sketch.quantile(1.0));
+        assertTrue(sketch.getRetainedCount() < 20 * QuantileSketch.DEFAULT_K, "retained " + sketch.getRetainedCount());
+        for (double q : new double[]{0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99}) {
+            assertRankWithin(sorted, q, sketch.quantile(q));
+        }
+    }
+
+    @Test
+    void mergedSketchesMatchSingleSketch() {
+        double[] samples = new Random(37).doubles(200_000, -5, 5).toArray();
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        QuantileSketch merged = new QuantileSketch();
+        for (int from = 0; from < samples.length; from += 30_000) {
+            QuantileSketch part = new QuantileSketch();
+            part.accept(samples, from, Math.min(samples.length, from + 30_000));
+            merged.merge(part);
+        }
+
+        assertEquals(samples.length, merged.getCount());
+        for (double q : new double[]{0.1, 0.5, 0.9}) {
+            assertRankWithin(sorted, q, merged.quantile(q));
+        }
+    }
+
+    @Test
+    void smallInputIsExact() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.accept(new double[]{5, 1, 4, 2, 3}, 0, 5);
+
+        assertEquals(3.0, sketch.quantile(0.5));
+        assertEquals(1.0, sketch.quantile(0.2));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+    }
+
+    private static void assertRankWithin(double[] sorted, double q, double quantile) {
+        int rank = Arrays.binarySearch(sorted, quantile);
+        double error = Math.abs((double) rank / sorted.length - q);
+        assertTrue(rank >= 0 && error <= RANK_TOLERANCE, "q=" + q + ", rank error " + error);
+    }
+}
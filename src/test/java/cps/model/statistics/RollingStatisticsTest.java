@@ -0,0 +1,76 @@
+package cps.model.statistics;
+
+import cps.model.statistics.RollingStatistics.Measure;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingStatisticsTest {
+
+    @Test
+    void matchesStatisticsOfEachWindow() {
+        double[] samples = new Random(23).doubles(500, -4, 6).toArray();
+        for (int windowSize : new int[]{1, 2, 7, 64, 600}) {
+            for (Measure measure : Measure.values()) {
+                double[] rolling = RollingStatistics.compute(samples, windowSize, measure);
+                for (int i = 0; i < samples.length; i++) {
+                    double[] window = Arrays.copyOfRange(samples, Math.max(0, i - windowSize + 1), i + 1);
+                    assertEquals(expected(window, measure), rolling[i], 1e-9,
+                            measure + ", W=" + windowSize + ", i=" + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void chunkedStreamEqualsBatch() {
+        double[] samples = new Random(29).doubles(1000, -1, 1).toArray();
+        double[] batch = RollingStatistics.compute(samples, 50, Measure.MAX);
+
+        RollingStatistics statistics = new RollingStatistics(50);
+        double[] streamed = new double[samples.length];
+        for (int from = 0; from < samples.length; from += 37) {
+            int to = Math.min(samples.length, from + 37);
+            statistics.process(samples, from, to, Measure.MAX, streamed, from);
+        }
+
+        assertArrayEquals(batch, streamed);
+    }
+
+    @Test
+    void loudSamplesLeaveNoErrorAfterLeavingWindow() {
+        int windowSize = 64;
+        Random random = new Random(31);
+        double[] samples = new double[100_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (i < 50_000 ? 1e8 : 1e-3) * random.nextGaussian();
+        }
+
+        RollingStatistics statistics = new RollingStatistics(windowSize);
+        for (int i = 0; i < samples.length; i++) {
+            statistics.push(samples[i]);
+            // window lies within quiet part, at every phase of recomputation
+            if (i >= samples.length - windowSize) {
+                double[] window = Arrays.copyOfRange(samples, i - windowSize + 1, i + 1);
+                double variance = expected(window, Measure.VARIANCE);
+                assertEquals(variance, statistics.getVariance(), 1e-6 * variance, "i=" + i);
+                assertEquals(expected(window, Measure.RMS), statistics.getRMS(), 1e-6 * Math.sqrt(variance), "i=" + i);
+                assertEquals(expected(window, Measure.MEAN), statistics.getMean(), 1e-6 * Math.sqrt(variance), "i=" + i);
+            }
+        }
+    }
+
+    private static double expected(double[] window, Measure measure) {
+        StatisticsAccumulator accumulator = StatisticsAccumulator.of(window);
+        return switch (measure) {
+            case MEAN -> accumulator.getMean();
+            case RMS -> accumulator.getRMS();
+            case VARIANCE -> accumulator.getVariance();
+            case MIN -> accumulator.getMin();
+            case MAX -> accumulator.getMax();
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package cps.model.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsAccumulatorTest {
+
+    @Test
+    void matchesTwoPassStatistics() {
+        double[] samples = new Random(11).doubles(1000, -2, 5).toArray();
+        StatisticsAccumulator accumulator = StatisticsAccumulator.of(samples);
+
+        double mean = Arrays.stream(samples).average().orElseThrow();
+        double variance = Arrays.stream(samples).map(s -> (s - mean) * (s - mean)).average().orElseThrow();
+        double avgPower = Arrays.stream(samples).map(s -> s * s).average().orElseThrow();
+
+        assertEquals(1000, accumulator.getCount());
+        assertEquals(mean, accumulator.getMean(), 1e-12);
+        assertEquals(variance, accumulator.getVariance(), 1e-10);
+        assertEquals(avgPower, accumulator.getAveragePower(), 1e-10);
+        assertEquals(Math.sqrt(avgPower), accumulator.getRMS(), 1e-10);
+        assertEquals(Arrays.stream(samples).map(Math::abs).average().orElseThrow(), accumulator.getAbsoluteMean(), 1e-12);
+        assertEquals(Arrays.stream(samples).min().orElseThrow(), accumulator.getMin());
+        assertEquals(Arrays.stream(samples).max().orElseThrow(), accumulator.getMax());
+    }
+
+    @Test
+    void mergedPartsEqualWhole() {
+        double[] samples = new Random(13).doubles(777, -1, 1).toArray();
+        StatisticsAccumulator whole = StatisticsAccumulator.of(samples);
+
+        StatisticsAccumulator left = new StatisticsAccumulator();
+        left.accept(samples, 0, 100);
+        StatisticsAccumulator right = new StatisticsAccumulator();
+        right.accept(samples, 100, samples.length);
+        left.merge(right).merge(new StatisticsAccumulator());
+
+        assertEquals(whole.getCount(), left.getCount());
+        assertEquals(whole.getMean(), left.getMean(), 1e-12);
+        assertEquals(whole.getVariance(), left.getVariance(), 1e-12);
+        assertEquals(whole.getMin(), left.getMin());
+        assertEquals(whole.getMax(), left.getMax());
+    }
+
+    @Test
+    void parallelAccumulationIsStableForLargeOffset() {
+        int N = 3 * StatisticsAccumulator.PARALLEL_THRESHOLD + 4;
+        double[] samples = new double[N];
+        for (int i = 0; i < N; i++) {
+            // large offset makes naive sum of squares lose variance
+            samples[i] = 1e9 + (i % 2 == 0 ? 1.0 : -1.0);
+        }
+        StatisticsAccumulator accumulator = StatisticsAccumulator.of(samples);
+
+        assertEquals(N, accumulator.getCount());
+        assertEquals(1e9, accumulator.getMean(), 1e-6);
+        assertEquals(1.0, accumulator.getVariance(), 1e-6);
+    }
+}
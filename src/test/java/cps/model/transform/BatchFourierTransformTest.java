@@ -0,0 +1,46 @@
+package cps.model.transform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchFourierTransformTest {
+
+    @Test
+    void framesMatchSingleTransforms() {
+        Random random = new Random(13);
+        for (int frameSize : new int[]{1, 64, 100, 97}) {
+            int frames = 300;
+            double[] re = random.doubles((long) frames * frameSize, -1, 1).toArray();
+            double[] im = random.doubles((long) frames * frameSize, -1, 1).toArray();
+            double[] batchRe = re.clone();
+            double[] batchIm = im.clone();
+
+            BatchFourierTransform.fft(batchRe, batchIm, frameSize);
+
+            for (int m = 0; m < frames; m++) {
+                int from = m * frameSize;
+                double[] frameRe = Arrays.copyOfRange(re, from, from + frameSize);
+                double[] frameIm = Arrays.copyOfRange(im, from, from + frameSize);
+                FourierTransform.fft(frameRe, frameIm);
+
+                assertArrayEquals(frameRe, Arrays.copyOfRange(batchRe, from, from + frameSize), 1e-9);
+                assertArrayEquals(frameIm, Arrays.copyOfRange(batchIm, from, from + frameSize), 1e-9);
+            }
+
+            BatchFourierTransform.ifft(batchRe, batchIm, frameSize);
+            for (int n = 0; n < re.length; n++) {
+                assertEquals(re[n], batchRe[n] / frameSize, 1e-9);
+                assertEquals(im[n], batchIm[n] / frameSize, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void frameSizeMustDivideSamples() {
+        assertThrows(IllegalArgumentException.class, () -> BatchFourierTransform.fft(new double[10], new double[10], 4));
+    }
+}
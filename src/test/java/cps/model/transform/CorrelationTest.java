@@ -0,0 +1,80 @@
+package cps.model.transform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorrelationTest {
+
+    @Test
+    void crossCorrelationMatchesDirect() {
+        Random random = new Random(53);
+        int[][] sizes = {{1, 1}, {10, 4}, {4, 10}, {300, 300}, {2000, 150}};
+        for (int[] size : sizes) {
+            double[] s1 = random.doubles(size[0], -1, 1).toArray();
+            double[] s2 = random.doubles(size[1], -1, 1).toArray();
+            int N = s1.length;
+            int M = s2.length;
+            double[] expected = direct(s1, s2);
+
+            assertArrayEquals(expected, Correlation.crossCorrelate(s1, s2, Correlation.Mode.FULL), 1e-9);
+            assertArrayEquals(Arrays.copyOfRange(expected, (M - 1) / 2, (M - 1) / 2 + N),
+                    Correlation.crossCorrelate(s1, s2, Correlation.Mode.SAME), 1e-9);
+            if (M <= N) {
+                assertArrayEquals(Arrays.copyOfRange(expected, M - 1, N),
+                        Correlation.crossCorrelate(s1, s2, Correlation.Mode.VALID), 1e-9);
+            }
+
+            for (int maxLag : new int[]{0, 3, 200, 5000}) {
+                double[] limited = Correlation.crossCorrelate(s1, s2, maxLag);
+                for (int lag = -maxLag; lag <= maxLag; lag++) {
+                    int index = lag + M - 1;
+                    double value = index >= 0 && index < expected.length ? expected[index] : 0.0;
+                    assertEquals(value, limited[lag + maxLag], 1e-9, "lag " + lag);
+                }
+            }
+        }
+    }
+
+    @Test
+    void sameLagsStartAtMinusHalfKernel() {
+        Random random = new Random(61);
+        double[] s1 = random.doubles(20, -1, 1).toArray();
+        for (int M : new int[]{4, 5}) {
+            double[] s2 = random.doubles(M, -1, 1).toArray();
+            double[] same = Correlation.crossCorrelate(s1, s2, Correlation.Mode.SAME);
+            int maxLag = s1.length;
+            double[] limited = Correlation.crossCorrelate(s1, s2, maxLag);
+            for (int j = 0; j < same.length; j++) {
+                int lag = j - M / 2;
+                assertEquals(limited[lag + maxLag], same[j], 1e-9, "M " + M + ", lag " + lag);
+            }
+        }
+    }
+
+    @Test
+    void autocorrelationMatchesDirect() {
+        Random random = new Random(59);
+        for (int N : new int[]{1, 7, 64, 1500}) {
+            double[] samples = random.doubles(N, -1, 1).toArray();
+            double[] expected = direct(samples, samples);
+
+            assertArrayEquals(expected, Correlation.autocorrelate(samples, Correlation.Mode.FULL), 1e-9);
+            assertArrayEquals(Arrays.copyOfRange(expected, N - 1, N - 1 + Math.min(N, 10)),
+                    Arrays.copyOf(Correlation.autocorrelate(samples, 9), Math.min(N, 10)), 1e-9);
+        }
+    }
+
+    private static double[] direct(double[] s1, double[] s2) {
+        double[] product = new double[s1.length + s2.length - 1];
+        for (int k = 0; k < s1.length; k++) {
+            for (int i = 0; i < s2.length; i++) {
+                product[k + s2.length - 1 - i] += s1[k] * s2[i];
+            }
+        }
+        return product;
+    }
+}
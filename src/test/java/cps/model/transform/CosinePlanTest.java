@@ -0,0 +1,44 @@
+package cps.model.transform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CosinePlanTest {
+
+    @Test
+    void forwardMatchesDirectTransform() {
+        Random random = new Random(23);
+        for (int N : new int[]{1, 2, 8, 64, 7, 45, 97}) {
+            double[] samples = random.doubles(N, -1, 1).toArray();
+            double[] result = new double[N];
+            FourierPlanCache.forCosine(N).forward(samples, result);
+
+            for (int m = 0; m < N; m++) {
+                double sum = 0.0;
+                for (int n = 0; n < N; n++) {
+                    sum += samples[n] * Math.cos(Math.PI * (2 * n + 1) * m / (2 * N));
+                }
+                double expected = sum * Math.sqrt((m == 0 ? 1.0 : 2.0) / N);
+                assertEquals(expected, result[m], 1e-9, "N=" + N + ", m=" + m);
+            }
+        }
+    }
+
+    @Test
+    void inverseRestoresSamples() {
+        Random random = new Random(29);
+        for (int N : new int[]{1, 2, 16, 1024, 45, 97, 1000}) {
+            double[] samples = random.doubles(N, -1, 1).toArray();
+            CosinePlan plan = FourierPlanCache.forCosine(N);
+
+            double[] buffer = samples.clone();
+            plan.forward(buffer, buffer);
+            plan.inverse(buffer, buffer);
+
+            assertArrayEquals(samples, buffer, 1e-9, "N=" + N);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package cps.model.transform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastConvolutionTest {
+
+    @Test
+    void overlapAddMatchesDirect() {
+        Random random = new Random(41);
+        int[][] sizes = {{1, 1}, {5, 3}, {100, 100}, {1000, 37}, {37, 1000}, {5000, 255}, {777, 64}};
+        for (int[] size : sizes) {
+            double[] signal1 = random.doubles(size[0], -1, 1).toArray();
+            double[] signal2 = random.doubles(size[1], -1, 1).toArray();
+
+            double[] expected = FastConvolution.direct(signal1, signal2);
+
+            assertArrayEquals(expected, FastConvolution.overlapAdd(signal1, signal2), 1e-9);
+            assertArrayEquals(expected, FastConvolution.convolve(signal1, signal2), 1e-9);
+        }
+    }
+
+    @Test
+    void algorithmChosenBySizes() {
+        assertTrue(FastConvolution.isDirectFaster(1_000_000, 15));
+        assertTrue(FastConvolution.isDirectFaster(100, 100));
+        assertFalse(FastConvolution.isDirectFaster(1_000_000, 1001));
+        assertFalse(FastConvolution.isDirectFaster(4096, 4096));
+    }
+}
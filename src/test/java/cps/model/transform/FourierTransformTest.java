@@ -0,0 +1,78 @@
+package cps.model.transform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FourierTransformTest {
+
+    @Test
+    void fftMatchesDirectTransform() {
+        Random random = new Random(7);
+        for (int log2N = 0; log2N <= 9; log2N++) {
+            int N = 1 << log2N;
+            double[] re = random.doubles(N, -1, 1).toArray();
+            double[] im = random.doubles(N, -1, 1).toArray();
+
+            double[][] expected = directTransform(re, im);
+            double[][] twiddles = FourierTransform.createTwiddles(N);
+            FourierTransform.fft(re, im, twiddles[0], twiddles[1]);
+
+            for (int k = 0; k < N; k++) {
+                assertEquals(expected[0][k], re[k], 1e-9, "re, N=" + N + ", k=" + k);
+                assertEquals(expected[1][k], im[k], 1e-9, "im, N=" + N + ", k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void ifftRestoresSamples() {
+        int N = 64;
+        double[] samples = new Random(3).doubles(N, -1, 1).toArray();
+        double[] re = samples.clone();
+        double[] im = new double[N];
+
+        double[][] twiddles = FourierTransform.createTwiddles(N);
+        FourierTransform.fft(re, im, twiddles[0], twiddles[1]);
+        FourierTransform.ifft(re, im, twiddles[0], twiddles[1]);
+
+        for (int n = 0; n < N; n++) {
+            assertEquals(samples[n], re[n] / N, 1e-12);
+            assertEquals(0.0, im[n] / N, 1e-12);
+        }
+    }
+
+    @Test
+    void cachedPlanReused() {
+        FourierPlan plan = FourierPlanCache.get(10);
+        assertSame(plan, FourierPlanCache.forSize(1024));
+
+        double[] re = new Random(5).doubles(1024, -1, 1).toArray();
+        double[] im = new double[1024];
+        double[] expectedRe = re.clone();
+        double[] expectedIm = im.clone();
+
+        double[][] twiddles = FourierTransform.createTwiddles(1024);
+        FourierTransform.fft(expectedRe, expectedIm, twiddles[0], twiddles[1]);
+        plan.forward(re, im);
+
+        assertArrayEquals(expectedRe, re, 1e-12);
+        assertArrayEquals(expectedIm, im, 1e-12);
+    }
+
+    private static double[][] directTransform(double[] re, double[] im) {
+        int N = re.length;
+        double[] outRe = new double[N];
+        double[] outIm = new double[N];
+        for (int k = 0; k < N; k++) {
+            for (int n = 0; n < N; n++) {
+                double omega = 2 * Math.PI * k * n / N;
+                outRe[k] += re[n] * Math.cos(omega) + im[n] * Math.sin(omega);
+                outIm[k] += im[n] * Math.cos(omega) - re[n] * Math.sin(omega);
+            }
+        }
+        return new double[][]{outRe, outIm};
+    }
+}
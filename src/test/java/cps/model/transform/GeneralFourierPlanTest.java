@@ -0,0 +1,66 @@
+package cps.model.transform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneralFourierPlanTest {
+
+    @Test
+    void anyLengthMatchesDirectTransform() {
+        Random random = new Random(23);
+        int[] sizes = {1, 2, 3, 5, 6, 12, 15, 20, 45, 60, 100, 7, 11, 13, 97, 210, 1000};
+        for (int N : sizes) {
+            double[] re = random.doubles(N, -1, 1).toArray();
+            double[] im = random.doubles(N, -1, 1).toArray();
+            double[][] expected = directTransform(re, im);
+
+            FourierTransform.fft(re, im);
+
+            for (int k = 0; k < N; k++) {
+                assertEquals(expected[0][k], re[k], 1e-8, "re, N=" + N + ", k=" + k);
+                assertEquals(expected[1][k], im[k], 1e-8, "im, N=" + N + ", k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void algorithmChosenBySize() {
+        assertEquals(GeneralFourierPlan.Algorithm.RADIX_2, FourierPlanCache.forLength(64).getAlgorithm());
+        assertEquals(GeneralFourierPlan.Algorithm.MIXED_RADIX, FourierPlanCache.forLength(360).getAlgorithm());
+        assertEquals(GeneralFourierPlan.Algorithm.BLUESTEIN, FourierPlanCache.forLength(1009).getAlgorithm());
+    }
+
+    @Test
+    void inverseRestoresSamples() {
+        for (int N : new int[]{30, 31}) {
+            double[] samples = new Random(29).doubles(N, -1, 1).toArray();
+            double[] re = samples.clone();
+            double[] im = new double[N];
+
+            FourierTransform.fft(re, im);
+            FourierTransform.ifft(re, im);
+
+            for (int n = 0; n < N; n++) {
+                assertEquals(samples[n], re[n] / N, 1e-12);
+                assertEquals(0.0, im[n] / N, 1e-12);
+            }
+        }
+    }
+
+    private static double[][] directTransform(double[] re, double[] im) {
+        int N = re.length;
+        double[] outRe = new double[N];
+        double[] outIm = new double[N];
+        for (int k = 0; k < N; k++) {
+            for (int n = 0; n < N; n++) {
+                double omega = 2 * Math.PI * ((long) k * n % N) / N;
+                outRe[k] += re[n] * Math.cos(omega) + im[n] * Math.sin(omega);
+                outIm[k] += im[n] * Math.cos(omega) - re[n] * Math.sin(omega);
+            }
+        }
+        return new double[][]{outRe, outIm};
+    }
+}
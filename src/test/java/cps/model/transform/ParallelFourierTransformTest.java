@@ -0,0 +1,34 @@
+package cps.model.transform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelFourierTransformTest {
+
+    @Test
+    void parallelMatchesSequential() {
+        Random random = new Random(11);
+        for (int log2N = 20; log2N <= 21; log2N++) {
+            int N = 1 << log2N;
+            double[] re = random.doubles(N, -1, 1).toArray();
+            double[] im = random.doubles(N, -1, 1).toArray();
+            double[] expectedRe = re.clone();
+            double[] expectedIm = im.clone();
+
+            FourierPlanCache.get(log2N).forward(expectedRe, expectedIm);
+            ParallelFourierTransform.fft(re, im);
+
+            assertArrayEquals(expectedRe, re, 1e-9);
+            assertArrayEquals(expectedIm, im, 1e-9);
+
+            ParallelFourierTransform.ifft(re, im);
+            FourierPlanCache.get(log2N).inverse(expectedRe, expectedIm);
+
+            assertArrayEquals(expectedRe, re, 1e-6);
+            assertArrayEquals(expectedIm, im, 1e-6);
+        }
+    }
+}
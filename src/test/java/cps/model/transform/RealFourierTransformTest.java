@@ -0,0 +1,47 @@
+package cps.model.transform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealFourierTransformTest {
+
+    @Test
+    void forwardMatchesComplexTransform() {
+        Random random = new Random(11);
+        for (int log2N = 1; log2N <= 10; log2N++) {
+            int N = 1 << log2N;
+            double[] samples = random.doubles(N, -1, 1).toArray();
+
+            double[] expectedRe = samples.clone();
+            double[] expectedIm = new double[N];
+            FourierTransform.fft(expectedRe, expectedIm);
+
+            double[] re = new double[N / 2 + 1];
+            double[] im = new double[N / 2 + 1];
+            RealFourierTransform.forward(samples, re, im);
+
+            for (int k = 0; k <= N / 2; k++) {
+                assertEquals(expectedRe[k], re[k], 1e-9, "re, N=" + N + ", k=" + k);
+                assertEquals(expectedIm[k], im[k], 1e-9, "im, N=" + N + ", k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void inverseRestoresSamples() {
+        int N = 256;
+        double[] samples = new Random(13).doubles(N, -1, 1).toArray();
+
+        double[] re = new double[N / 2 + 1];
+        double[] im = new double[N / 2 + 1];
+        RealFourierTransform.forward(samples, re, im);
+
+        double[] restored = new double[N];
+        RealFourierTransform.inverse(re, im, restored);
+
+        assertArrayEquals(samples, restored, 1e-12);
+    }
+}